@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# 서블릿 API(8080)와 리액티브 API(8081)에 같은 부하를 걸어 결과를 나란히 남긴다.
+# 두 애플리케이션이 같은 MySQL을 보고 떠 있어야 하고 wrk가 설치되어 있어야 한다.
+#
+#   CONNECTIONS=20000 DURATION=60s ./reactive-api/load-compare.sh
+#
+# 느린 모바일 클라이언트가 많은 상황은 연결 수(CONNECTIONS)를 스레드 풀보다 훨씬 크게 잡아서 흉내 낸다.
+# 측정 도구일 뿐이고 저장소에 기록된 결과는 없다.
+set -euo pipefail
+
+SERVLET_URL=${SERVLET_URL:-http://localhost:8080}
+REACTIVE_URL=${REACTIVE_URL:-http://localhost:8081}
+THREADS=${THREADS:-8}
+CONNECTIONS=${CONNECTIONS:-10000}
+DURATION=${DURATION:-30s}
+EVENT_ID=${EVENT_ID:-1}
+OUT_DIR=${OUT_DIR:-build/load-compare}
+
+mkdir -p "$OUT_DIR"
+ulimit -n $((CONNECTIONS + 1024)) || true
+
+run() {
+    local name=$1 url=$2
+    echo "== $name $url"
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --timeout 30s --latency \
+        -H 'Accept: application/hal+json' "$url" | tee "$OUT_DIR/$name.txt"
+}
+
+run servlet-list "$SERVLET_URL/api/events?page=0&size=20"
+run reactive-list "$REACTIVE_URL/api/events?page=0&size=20"
+run servlet-get "$SERVLET_URL/api/events/$EVENT_ID"
+run reactive-get "$REACTIVE_URL/api/events/$EVENT_ID"
+
+echo
+printf '%-16s %12s %10s %10s %10s\n' scenario 'req/s' p50 p99 errors
+for name in servlet-list reactive-list servlet-get reactive-get; do
+    file="$OUT_DIR/$name.txt"
+    rps=$(awk '/Requests\/sec/ {print $2}' "$file")
+    p50=$(awk '$1 == "50%" {print $2}' "$file")
+    p99=$(awk '$1 == "99%" {print $2}' "$file")
+    errors=$(awk '/Socket errors|Non-2xx/ {sum += $NF} END {print sum + 0}' "$file")
+    printf '%-16s %12s %10s %10s %10s\n' "$name" "$rps" "$p50" "$p99" "$errors"
+done
@@ -0,0 +1,45 @@
+package jy.learning.bootrestapi.reactive;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 서블릿 애플리케이션의 event 테이블을 읽기 전용으로 매핑한다. JSON 모양은 서블릿 쪽 Event와 같다.
+ */
+@Getter @Setter @NoArgsConstructor
+@Table("event")
+public class Event {
+
+    @Id
+    private Integer id;
+    private String name;
+    private String description;
+    private LocalDateTime beginEnrollmentDateTime;
+    private LocalDateTime closeEnrollmentDateTime;
+    private LocalDateTime beginEventDateTime;
+    private LocalDateTime endEventDateTime;
+    private String location;
+    private int basePrice;
+    private int maxPrice;
+    private int limitOfEnrollment;
+    private boolean offline;
+    private boolean free;
+    private EventStatus eventStatus;
+    @JsonIgnore
+    private Integer managerId;
+
+    // AccountSerializer 처럼 매니저는 id만 내보낸다.
+    @JsonProperty("manager")
+    public Map<String, Integer> getManager() {
+        return managerId == null ? null : Collections.singletonMap("id", managerId);
+    }
+}
@@ -0,0 +1,9 @@
+package jy.learning.bootrestapi.reactive;
+
+public enum EventStatus {
+    DRAFT,
+
+    PUBLISHED,
+
+    BEGAN_ENROLLMENT;
+}
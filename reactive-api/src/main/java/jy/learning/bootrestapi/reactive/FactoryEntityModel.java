@@ -0,0 +1,66 @@
+package jy.learning.bootrestapi.reactive;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * 서블릿 쪽 FactoryEntityModel, PagedResourcesAssembler와 같은 링크 구성을 만든다.
+ * 요청 URI를 기준으로 링크를 만들어서 스레드 로컬에 기대지 않는다.
+ */
+public class FactoryEntityModel {
+
+    public static EntityModel<Event> eventEntityModel(Event event, UriComponentsBuilder baseUri) {
+        EntityModel<Event> entityModel = EntityModel.of(event);
+        entityModel.add(Link.of(baseUri.cloneBuilder()
+                .replacePath("/api/events/{id}")
+                .replaceQuery(null)
+                .buildAndExpand(event.getId())
+                .toUriString()).withSelfRel());
+        return entityModel;
+    }
+
+    public static PagedModel<EntityModel<Event>> eventPagedModel(Page<Event> page, UriComponentsBuilder requestUri) {
+        List<EntityModel<Event>> content = page.getContent().stream()
+                .map(event -> eventEntityModel(event, requestUri))
+                .collect(Collectors.toList());
+        PagedModel.PageMetadata metadata = new PagedModel.PageMetadata(
+                page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages());
+        PagedModel<EntityModel<Event>> pagedModel = PagedModel.of(content, metadata);
+
+        boolean navigable = page.hasPrevious() || page.hasNext();
+        if (navigable) {
+            pagedModel.add(pageLink(requestUri, page.getPageable(), 0, IanaLinkRelations.FIRST));
+        }
+        if (page.hasPrevious()) {
+            pagedModel.add(pageLink(requestUri, page.getPageable(), page.getNumber() - 1, IanaLinkRelations.PREV));
+        }
+        pagedModel.add(pageLink(requestUri, page.getPageable(), page.getNumber(), IanaLinkRelations.SELF));
+        if (page.hasNext()) {
+            pagedModel.add(pageLink(requestUri, page.getPageable(), page.getNumber() + 1, IanaLinkRelations.NEXT));
+        }
+        if (navigable) {
+            pagedModel.add(pageLink(requestUri, page.getPageable(), page.getTotalPages() - 1, IanaLinkRelations.LAST));
+        }
+        return pagedModel;
+    }
+
+    private static Link pageLink(UriComponentsBuilder requestUri, Pageable pageable, int page, LinkRelation rel) {
+        UriComponentsBuilder builder = requestUri.cloneBuilder()
+                .replaceQuery(null)
+                .queryParam("page", page)
+                .queryParam("size", pageable.getPageSize());
+        pageable.getSort().forEach(order -> builder.queryParam("sort",
+                order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT)));
+        return Link.of(builder.build().toUriString(), rel);
+    }
+}
@@ -0,0 +1,65 @@
+package jy.learning.bootrestapi.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+/**
+ * 서블릿 EventController의 GET /api/events, GET /api/events/{id} 와 같은 HAL 응답을 논블로킹으로 만든다.
+ * 인증을 다루지 않으므로 익명 사용자에게 보이는 링크만 붙인다.
+ */
+@RestController
+@RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
+@RequiredArgsConstructor
+public class ReactiveEventController {
+
+    private final ReactiveEventRepository eventRepository;
+
+    private final DatabaseClient databaseClient;
+
+    @GetMapping
+    public Mono<PagedModel<EntityModel<Event>>> queryEvents(Pageable pageable, ServerWebExchange exchange) {
+        UriComponentsBuilder requestUri = UriComponentsBuilder.fromHttpRequest(exchange.getRequest());
+
+        // 페이지 내용과 전체 개수를 동시에 조회한다.
+        return Mono.zip(
+                    this.databaseClient.select()
+                            .from(Event.class)
+                            .page(pageable)
+                            .fetch()
+                            .all()
+                            .collectList(),
+                    this.eventRepository.count())
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()))
+                .map(page -> {
+                    PagedModel<EntityModel<Event>> pagedModel = FactoryEntityModel.eventPagedModel(page, requestUri);
+                    pagedModel.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+                    return pagedModel;
+                });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<EntityModel<Event>>> getEvent(@PathVariable Integer id, ServerWebExchange exchange) {
+        UriComponentsBuilder requestUri = UriComponentsBuilder.fromHttpRequest(exchange.getRequest());
+        return this.eventRepository.findById(id)
+                .map(event -> {
+                    EntityModel<Event> entityModel = FactoryEntityModel.eventEntityModel(event, requestUri);
+                    entityModel.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+                    return ResponseEntity.ok(entityModel);
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,6 @@
+package jy.learning.bootrestapi.reactive;
+
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+
+public interface ReactiveEventRepository extends ReactiveSortingRepository<Event, Integer> {
+}
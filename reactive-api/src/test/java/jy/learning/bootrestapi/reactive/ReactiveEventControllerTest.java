@@ -0,0 +1,73 @@
+package jy.learning.bootrestapi.reactive;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.connectionfactory.init.ConnectionFactoryInitializer;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class ReactiveEventControllerTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @TestConfiguration
+    static class SchemaConfiguration {
+
+        @Bean
+        public ConnectionFactoryInitializer connectionFactoryInitializer(ConnectionFactory connectionFactory) {
+            ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+            initializer.setConnectionFactory(connectionFactory);
+            initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")));
+            return initializer;
+        }
+    }
+
+    @Test
+    @DisplayName("이벤트 목록을 서블릿 API와 같은 HAL 모양으로 조회하기")
+    public void queryEvents() {
+        this.webTestClient.get().uri("/api/events?page=0&size=2&sort=id,asc")
+                .accept(MediaTypes.HAL_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("_embedded.eventList.length()").isEqualTo(2)
+                .jsonPath("_embedded.eventList[0].id").isEqualTo(1)
+                .jsonPath("_embedded.eventList[0].manager.id").isEqualTo(7)
+                .jsonPath("_embedded.eventList[0]._links.self.href").exists()
+                .jsonPath("page.totalElements").isEqualTo(3)
+                .jsonPath("page.totalPages").isEqualTo(2)
+                .jsonPath("_links.next").exists()
+                .jsonPath("_links.profile").exists();
+    }
+
+    @Test
+    @DisplayName("이벤트 하나를 조회하고 없는 이벤트는 404 응답받기")
+    public void getEvent() {
+        this.webTestClient.get().uri("/api/events/{id}", 2)
+                .accept(MediaTypes.HAL_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("name").isEqualTo("event 2")
+                .jsonPath("eventStatus").isEqualTo("PUBLISHED")
+                .jsonPath("manager").isEmpty()
+                .jsonPath("_links.self.href").exists()
+                .jsonPath("_links.profile").exists();
+
+        this.webTestClient.get().uri("/api/events/{id}", 404)
+                .accept(MediaTypes.HAL_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
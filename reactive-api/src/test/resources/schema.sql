@@ -0,0 +1,26 @@
+create table event (
+    id integer primary key,
+    name varchar(255),
+    description varchar(255),
+    begin_enrollment_date_time timestamp,
+    close_enrollment_date_time timestamp,
+    begin_event_date_time timestamp,
+    end_event_date_time timestamp,
+    location varchar(255),
+    base_price integer not null,
+    max_price integer not null,
+    limit_of_enrollment integer not null,
+    reserved_seats integer not null,
+    offline boolean not null,
+    free boolean not null,
+    event_status varchar(255),
+    manager_id integer,
+    version integer
+);
+
+insert into event values (1, 'event 1', 'test event', '2020-10-18 12:26:00', '2020-10-19 12:26:00',
+    '2020-10-20 12:26:00', '2020-10-21 00:26:00', '강남역 D2 스타텁 팩토리', 100, 200, 100, 0, true, false, 'DRAFT', 7, 0);
+insert into event values (2, 'event 2', 'test event', '2020-10-18 12:26:00', '2020-10-19 12:26:00',
+    '2020-10-20 12:26:00', '2020-10-21 00:26:00', null, 0, 0, 100, 0, false, true, 'PUBLISHED', null, 0);
+insert into event values (3, 'event 3', 'test event', '2020-10-18 12:26:00', '2020-10-19 12:26:00',
+    '2020-10-20 12:26:00', '2020-10-21 00:26:00', null, 0, 0, 100, 0, false, true, 'PUBLISHED', null, 0);
@@ -0,0 +1,30 @@
+package jy.learning.bootrestapi.accounts;
+
+import jy.learning.bootrestapi.common.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountAdapterBenchmark {
+
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = BenchmarkFixtures.account();
+    }
+
+    @Benchmark
+    public AccountAdapter construct() {
+        return new AccountAdapter(account);
+    }
+}
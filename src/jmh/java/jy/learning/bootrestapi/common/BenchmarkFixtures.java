@@ -0,0 +1,97 @@
+package jy.learning.bootrestapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jy.learning.bootrestapi.accounts.Account;
+import jy.learning.bootrestapi.accounts.AccountRole;
+import jy.learning.bootrestapi.events.Event;
+import jy.learning.bootrestapi.events.EventDto;
+import jy.learning.bootrestapi.events.EventStatus;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 벤치마크에서 공통으로 쓰는 입력과 애플리케이션과 같은 설정의 ObjectMapper.
+ */
+public class BenchmarkFixtures {
+
+    public static EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("REST API Development With Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 10, 18, 12, 26))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 10, 19, 12, 26))
+                .beginEventDateTime(LocalDateTime.of(2020, 10, 20, 12, 26))
+                .endEventDateTime(LocalDateTime.of(2020, 10, 21, 0, 26))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+
+    public static Account account() {
+        return Account.builder()
+                .id(1)
+                .email("user@email.com")
+                .password("{bcrypt}$2a$10$abcdefghijklmnopqrstuuJ2yQ6ZzCmmpYVfG6V1QfPS8pRx8W2xK")
+                .roles(AccountRole.makeSetRoles(AccountRole.ADMIN, AccountRole.USER))
+                .build();
+    }
+
+    public static Event event(int id) {
+        return Event.builder()
+                .id(id)
+                .name("event " + id)
+                .description("REST API Development With Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 10, 18, 12, 26))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 10, 19, 12, 26))
+                .beginEventDateTime(LocalDateTime.of(2020, 10, 20, 12, 26))
+                .endEventDateTime(LocalDateTime.of(2020, 10, 21, 0, 26))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .offline(true)
+                .eventStatus(EventStatus.PUBLISHED)
+                .manager(account())
+                .build();
+    }
+
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    public static ObjectMapper halObjectMapper() {
+        return halObjectMapper(HalFormat.HAL_JSON);
+    }
+
+    public static ObjectMapper halObjectMapper(HalFormat format) {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(format.newFactory())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        mapper.registerModule(new Jackson2HalModule());
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        return mapper;
+    }
+
+    /**
+     * linkTo(...)가 실제 요청처럼 현재 요청 정보로 URI를 만들도록 벤치마크 스레드에 요청을 묶는다.
+     */
+    public static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
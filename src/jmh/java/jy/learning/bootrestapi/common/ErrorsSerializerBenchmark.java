@@ -0,0 +1,43 @@
+package jy.learning.bootrestapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import jy.learning.bootrestapi.events.EventDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorsSerializerBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Errors errors;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        objectMapper.registerModule(new SimpleModule().addSerializer(Errors.class, new ErrorsSerializer()));
+
+        EventDto eventDto = BenchmarkFixtures.eventDto();
+        errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        errors.reject("wrongPrices", "Values of Prices are Wrong");
+        errors.rejectValue("endEventDateTime", "wrongValue", "endEventDateTime is wrong.");
+        errors.rejectValue("basePrice", "Min", "must be greater than or equal to 0");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(errors);
+    }
+}
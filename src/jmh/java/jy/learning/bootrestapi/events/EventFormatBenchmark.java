@@ -0,0 +1,99 @@
+package jy.learning.bootrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jy.learning.bootrestapi.common.BenchmarkFixtures;
+import jy.learning.bootrestapi.common.HalFormat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GET /api/events 한 페이지를 인코딩별로 직렬화하는 비용. 본문 크기(gzip 전후)는 serializeAndGzip의
+ * 보조 카운터로 남는다. bodyBytes와 gzippedBytes를 calls로 나누면 한 페이지의 크기다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventFormatBenchmark {
+
+    @Param({"HAL_JSON", "CBOR", "SMILE"})
+    private HalFormat format;
+
+    @Param({"20", "200"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private PagedModel<EntityModel<Event>> pagedModel;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        objectMapper = BenchmarkFixtures.halObjectMapper(format);
+
+        List<EntityModel<Event>> content = IntStream.rangeClosed(1, pageSize)
+                .mapToObj(BenchmarkFixtures::event)
+                .map(FactoryEntityModel::eventEntityModel)
+                .collect(Collectors.toList());
+        pagedModel = PagedModel.of(content,
+                new PagedModel.PageMetadata(pageSize, 0, pageSize * 10L));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(pagedModel);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzip(BodySize size) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(pagedModel);
+        byte[] gzipped = gzip(body);
+        size.calls++;
+        size.bodyBytes += body.length;
+        size.gzippedBytes += gzipped.length;
+        return gzipped;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class BodySize {
+
+        public long calls;
+
+        public long bodyBytes;
+
+        public long gzippedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            calls = 0;
+            bodyBytes = 0;
+            gzippedBytes = 0;
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package jy.learning.bootrestapi.events;
+
+import jy.learning.bootrestapi.common.BenchmarkFixtures;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventMappingBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private EventMapper eventMapper;
+
+    private EventDto eventDto;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        eventMapper = Mappers.getMapper(EventMapper.class);
+        eventDto = BenchmarkFixtures.eventDto();
+    }
+
+    @Benchmark
+    public Event modelMapperCreate() {
+        return modelMapper.map(eventDto, Event.class);
+    }
+
+    @Benchmark
+    public Event eventMapperCreate() {
+        return eventMapper.toEvent(eventDto);
+    }
+
+    @Benchmark
+    public Event modelMapperUpdate() {
+        Event event = new Event();
+        modelMapper.map(eventDto, event);
+        return event;
+    }
+
+    @Benchmark
+    public Event eventMapperUpdate() {
+        Event event = new Event();
+        eventMapper.updateEvent(eventDto, event);
+        return event;
+    }
+}
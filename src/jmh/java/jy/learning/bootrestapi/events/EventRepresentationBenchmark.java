@@ -0,0 +1,52 @@
+package jy.learning.bootrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jy.learning.bootrestapi.common.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.EntityModel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/events/{id} 한 건을 만들 때의 링크 생성과 HAL 직렬화 비용.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventRepresentationBenchmark {
+
+    private ObjectMapper halObjectMapper;
+
+    private Event event;
+
+    private EntityModel<Event> entityModel;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        halObjectMapper = BenchmarkFixtures.halObjectMapper();
+        event = BenchmarkFixtures.event(1);
+        entityModel = FactoryEntityModel.eventEntityModel(event);
+    }
+
+    @Benchmark
+    public EntityModel<Event> eventEntityModel() {
+        return FactoryEntityModel.eventEntityModel(event);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return halObjectMapper.writeValueAsBytes(entityModel);
+    }
+
+    @Benchmark
+    public byte[] eventEntityModelAndSerialize() throws Exception {
+        return halObjectMapper.writeValueAsBytes(FactoryEntityModel.eventEntityModel(event));
+    }
+}
@@ -0,0 +1,49 @@
+package jy.learning.bootrestapi.events;
+
+import jy.learning.bootrestapi.common.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventValidatorBenchmark {
+
+    private EventValidator eventValidator;
+
+    private EventDto validEventDto;
+
+    private EventDto wrongEventDto;
+
+    @Setup
+    public void setUp() {
+        eventValidator = new EventValidator();
+        validEventDto = BenchmarkFixtures.eventDto();
+        wrongEventDto = BenchmarkFixtures.eventDto();
+        wrongEventDto.setBasePrice(10000);
+        wrongEventDto.setEndEventDateTime(wrongEventDto.getBeginEnrollmentDateTime().minusDays(1));
+    }
+
+    @Benchmark
+    public Errors validateValid() {
+        Errors errors = new BeanPropertyBindingResult(validEventDto, "eventDto");
+        eventValidator.validate(validEventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors validateWrong() {
+        Errors errors = new BeanPropertyBindingResult(wrongEventDto, "eventDto");
+        eventValidator.validate(wrongEventDto, errors);
+        return errors;
+    }
+}
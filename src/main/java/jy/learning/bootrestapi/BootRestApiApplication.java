@@ -2,8 +2,10 @@ package jy.learning.bootrestapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BootRestApiApplication {
 
     public static void main(String[] args) {
@@ -1,10 +1,15 @@
 package jy.learning.bootrestapi.accounts;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.common.LruCache;
+import jy.learning.bootrestapi.common.LruCacheMetrics;
+import jy.learning.bootrestapi.common.ReadWriteRoutingDataSource;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,24 +20,72 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
 
     private final AccountRepository accountRepository;
 
     private final PasswordEncoder passwordEncoder;
 
+    private final LruCache<String, Account> accountCache;
+
+    private final Timer loadTimer;
+
+    public AccountService(AccountRepository accountRepository,
+                          PasswordEncoder passwordEncoder,
+                          AppProperties appProperties,
+                          MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.accountCache = new LruCache<>(appProperties.getAccountCacheSize(), appProperties.getAccountCacheTtl());
+        this.loadTimer = Timer.builder("accounts.load").register(meterRegistry);
+        new LruCacheMetrics(this.accountCache, "accounts").bindTo(meterRegistry);
+    }
+
     public Account saveAccount(Account account) {
         account.setPassword(this.passwordEncoder.encode(account.getPassword()));
-        return this.accountRepository.save(account);
+        Account saved = this.accountRepository.save(account);
+        this.accountCache.evict(saved.getEmail());
+        return saved;
     }
 
+    /**
+     * Account는 캐시하되 AccountAdapter는 매번 새로 만든다.
+     * 인증이 끝나면 ProviderManager가 UserDetails의 비밀번호를 지우기 때문에 공유하면 안 된다.
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException(username));
+        return loadTimer.record(() -> new AccountAdapter(loadAccount(username)));
+    }
+
+    /**
+     * 자격 증명은 primary에서 읽는다. 지연된 replica에서는 가입 직후 로그인이 실패하거나,
+     * 비밀번호를 바꾼 뒤 예전 해시를 읽어 TTL 동안 캐시할 수 있다.
+     */
+    private Account loadAccount(String username) {
+        Account account = accountCache.get(username);
+        if (account == null) {
+            account = ReadWriteRoutingDataSource.onPrimary(() -> accountRepository.findByEmail(username))
+                    .orElseThrow(() -> new UsernameNotFoundException(username));
+            accountCache.put(username, account);
+        }
+        return account;
+    }
+
+    /**
+     * 로그인 시 해싱 설정(bcrypt cost 등)이 바뀐 것이 확인되면 이미 새로 해싱된 비밀번호를 저장한다.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Account account = ReadWriteRoutingDataSource.onPrimary(() -> accountRepository.findByEmail(user.getUsername()))
+                .orElseThrow(() -> new UsernameNotFoundException(user.getUsername()));
+        account.setPassword(newPassword);
+        Account saved = accountRepository.save(account);
+        accountCache.evict(saved.getEmail());
+        return new AccountAdapter(saved);
+    }
 
-        return new AccountAdapter(account);
+    public LruCache<String, Account> getAccountCache() {
+        return accountCache;
     }
 
     private Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
@@ -0,0 +1,24 @@
+package jy.learning.bootrestapi.accounts;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+
+/**
+ * 해싱 풀이 가득 찼을 때 던진다. OAuth2Exception을 상속해서 /oauth/token 에서도 429로 응답한다.
+ */
+public class PasswordHashingRejectedException extends OAuth2Exception {
+
+    public PasswordHashingRejectedException(String msg) {
+        super(msg);
+    }
+
+    @Override
+    public String getOAuth2ErrorCode() {
+        return "temporarily_unavailable";
+    }
+
+    @Override
+    public int getHttpErrorCode() {
+        return HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+}
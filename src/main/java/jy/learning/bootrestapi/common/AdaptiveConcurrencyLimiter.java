@@ -0,0 +1,94 @@
+package jy.learning.bootrestapi.common;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 관측한 지연 시간으로 동시 실행 한도를 조절한다. 지금까지 본 가장 짧은 지연(minRtt)에 비해 지연이 늘면
+ * 큐가 쌓이고 있다고 보고 한도를 minRtt / rtt 비율만큼 줄이고, 지연이 그대로면 sqrt(limit) 만큼 늘린다.
+ * 상태는 모두 Atomic 변수라서 획득과 반납에 락이 없다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private static final int MIN_RTT_RESET_SAMPLES = 1_000;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong limitBits;
+
+    private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicInteger samples = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("0 < minLimit <= maxLimit is required");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(maxLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * tryAcquire로 얻은 자리를 반납하면서 그 요청의 처리 시간을 반영한다.
+     */
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        // 부하 패턴이 바뀌면 예전 최솟값이 계속 한도를 눌러서 주기적으로 다시 잰다.
+        if (samples.incrementAndGet() % MIN_RTT_RESET_SAMPLES == 0) {
+            minRttNanos.set(rttNanos);
+        } else {
+            minRttNanos.accumulateAndGet(rttNanos, Math::min);
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, (double) minRttNanos.get() / rttNanos));
+        while (true) {
+            long currentBits = limitBits.get();
+            double current = Double.longBitsToDouble(currentBits);
+            double target = current * gradient + Math.sqrt(current);
+            double next = Math.max(minLimit, Math.min(maxLimit, current * (1 - SMOOTHING) + target * SMOOTHING));
+            if (next == current || limitBits.compareAndSet(currentBits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 지연을 잴 수 없었던 요청(예: 예외)의 자리를 한도 조절 없이 반납한다.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
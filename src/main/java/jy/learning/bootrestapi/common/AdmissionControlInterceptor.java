@@ -0,0 +1,203 @@
+package jy.learning.bootrestapi.common;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.endpoint.FrameworkEndpoint;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API 요청을 컨트롤러에 넘기기 전에 두 가지로 거른다.
+ * <ul>
+ *     <li>토큰 버킷: OAuth 클라이언트마다 하나, 계정(없으면 IP)마다 하나. 모자라면 429.
+ *     토큰 발급 같은 /oauth/** 요청은 아직 계정이 없으므로 클라이언트 id와 IP로 센다</li>
+ *     <li>쓰기 요청 동시 실행 한도: 지연 시간을 보고 조절하며 primary 풀 크기에서 여유분을 뺀 값을 넘지 않는다. 넘으면 503</li>
+ * </ul>
+ * 둘 다 Retry-After 헤더를 붙인다. 버킷 조회는 ConcurrentHashMap.get 이라 이미 있는 키에는 락이 없다.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_AT = AdmissionControlInterceptor.class.getName() + ".STARTED_AT";
+
+    private static final String CONCURRENCY_RETRY_AFTER_SECONDS = "1";
+
+    private final AppProperties appProperties;
+
+    private final ConcurrentMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, TokenBucket> principalBuckets = new ConcurrentHashMap<>();
+
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    private final Counter rateLimited;
+
+    private final Counter concurrencyLimited;
+
+    public AdmissionControlInterceptor(AppProperties appProperties,
+                                       HikariDataSource primaryDataSource,
+                                       MeterRegistry meterRegistry) {
+        this.appProperties = appProperties;
+        this.writeLimiter = new AdaptiveConcurrencyLimiter(appProperties.getWriteConcurrencyMinLimit(),
+                writeConcurrencyMaxLimit(appProperties, primaryDataSource.getMaximumPoolSize()));
+        this.rateLimited = Counter.builder("http.admission.rejected").tag("reason", "rate-limit").register(meterRegistry);
+        this.concurrencyLimited = Counter.builder("http.admission.rejected").tag("reason", "concurrency")
+                .register(meterRegistry);
+        Gauge.builder("http.admission.write.limit", writeLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("http.admission.write.in-flight", writeLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 쓰기 요청 한도는 primary 풀에서 스케줄 작업(좌석 임대 갱신, 정합성 맞추기 등)이 쓸 커넥션을 남겨 둔다.
+     * 직접 준 값이 그보다 크면 요청이 풀 대기에서 막히므로 기동에 실패한다.
+     */
+    static int writeConcurrencyMaxLimit(AppProperties appProperties, int maximumPoolSize) {
+        int available = maximumPoolSize - appProperties.getWriteConcurrencyPoolHeadroom();
+        Integer configured = appProperties.getWriteConcurrencyMaxLimit();
+        int maxLimit = configured == null ? available : configured;
+        if (maxLimit > available) {
+            throw new IllegalStateException("my-app.write-concurrency-max-limit(" + maxLimit
+                    + ") exceeds the primary pool size(" + maximumPoolSize + ") minus headroom("
+                    + appProperties.getWriteConcurrencyPoolHeadroom() + ")");
+        }
+        if (maxLimit < appProperties.getWriteConcurrencyMinLimit()) {
+            throw new IllegalStateException("write concurrency max limit(" + maxLimit
+                    + ") is below my-app.write-concurrency-min-limit("
+                    + appProperties.getWriteConcurrencyMinLimit() + ")");
+        }
+        return maxLimit;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        long now = System.nanoTime();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        String clientId = clientId(authentication, handler);
+        long wait = clientId == null ? 0 : bucket(clientBuckets, clientId, now,
+                appProperties.getRateLimitClientPerSecond(), appProperties.getRateLimitClientBurst()).tryAcquire(now);
+        if (wait == 0) {
+            wait = bucket(principalBuckets, principal(authentication, request, handler), now,
+                    appProperties.getRateLimitPerSecond(), appProperties.getRateLimitBurst()).tryAcquire(now);
+        }
+        if (wait > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(wait));
+            return false;
+        }
+
+        if (isWrite(request)) {
+            if (!writeLimiter.tryAcquire()) {
+                concurrencyLimited.increment();
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, CONCURRENCY_RETRY_AFTER_SECONDS);
+                return false;
+            }
+            request.setAttribute(STARTED_AT, now);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startedAt = request.getAttribute(STARTED_AT);
+        if (startedAt == null) {
+            return;
+        }
+
+        request.removeAttribute(STARTED_AT);
+        // 검증 실패처럼 DB까지 가지 않고 끝난 응답은 지연 기준을 흐리므로 반영하지 않는다.
+        if (ex == null && response.getStatus() < 400) {
+            writeLimiter.release(System.nanoTime() - (Long) startedAt);
+        } else {
+            writeLimiter.release();
+        }
+    }
+
+    /**
+     * 가득 찬 버킷은 버려도 동작이 같으므로 주기적으로 치워서 IP 키가 끝없이 쌓이지 않게 한다.
+     */
+    @Scheduled(fixedDelayString = "${my-app.rate-limit-cleanup-delay:PT1M}")
+    public void removeFullBuckets() {
+        long now = System.nanoTime();
+        clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        principalBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private TokenBucket bucket(ConcurrentMap<String, TokenBucket> buckets, String key, long now,
+                               double permitsPerSecond, int burst) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst, now));
+    }
+
+    private String clientId(Authentication authentication, Object handler) {
+        if (authentication instanceof OAuth2Authentication) {
+            return ((OAuth2Authentication) authentication).getOAuth2Request().getClientId();
+        }
+        // 인가 서버 엔드포인트는 클라이언트 자격 증명(Basic)으로 인증되므로 이름이 곧 클라이언트 id다.
+        if (isAuthorizationServerEndpoint(handler) && isAuthenticated(authentication)) {
+            return authentication.getName();
+        }
+        return null;
+    }
+
+    /**
+     * 익명 요청과 /oauth/** 요청은 IP로 묶는다. 프록시 뒤에서는 server.forward-headers-strategy=native 설정으로
+     * remoteAddr가 X-Forwarded-For의 클라이언트 IP로 바뀐다. 이 설정이 없으면 모든 익명 요청이 프록시 IP 하나로 묶인다.
+     */
+    private String principal(Authentication authentication, HttpServletRequest request, Object handler) {
+        if (!isAuthenticated(authentication) || isAuthorizationServerEndpoint(handler)
+                || (authentication instanceof OAuth2Authentication
+                    && ((OAuth2Authentication) authentication).isClientOnly())) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        return "account:" + authentication.getName();
+    }
+
+    private boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    private boolean isAuthorizationServerEndpoint(Object handler) {
+        return handler instanceof HandlerMethod
+                && ((HandlerMethod) handler).getBeanType().isAnnotationPresent(FrameworkEndpoint.class);
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    private String retryAfterSeconds(long waitNanos) {
+        return String.valueOf(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String retryAfterSeconds) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.sendError(status.value());
+    }
+}
@@ -1,11 +1,17 @@
 package jy.learning.bootrestapi.common;
 
+import jy.learning.bootrestapi.tokens.TokenFormat;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import javax.validation.constraints.NotEmpty;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @ConfigurationProperties(prefix = "my-app")
@@ -29,4 +35,71 @@ public class AppProperties {
 
     @NotEmpty
     private String clientSecret;
+
+    private int eventCacheSize = 10_000;
+
+    private Duration eventCacheTtl = Duration.ofMinutes(5);
+
+    private Duration eventLoadTimeout = Duration.ofSeconds(3);
+
+    private int eventLifecycleBatchSize = 1_000;
+
+    private int enrollmentSeatBlockSize = 20;
+
+    private Duration enrollmentLeaseIdleTimeout = Duration.ofSeconds(30);
+
+    private Duration enrollmentLeaseTimeout = Duration.ofMinutes(1);
+
+    private int enrollmentReconcileBatchSize = 1_000;
+
+    private int accountCacheSize = 10_000;
+
+    private Duration accountCacheTtl = Duration.ofMinutes(1);
+
+    private int tokenNearCacheSize = 10_000;
+
+    private Duration tokenNearCacheTtl = Duration.ofSeconds(30);
+
+    private int tokenPurgeBatchSize = 1_000;
+
+    private TokenFormat tokenFormat = TokenFormat.OPAQUE;
+
+    private String tokenSigningKey;
+
+    private int passwordBcryptStrength = 10;
+
+    private int passwordHashingThreads = Runtime.getRuntime().availableProcessors();
+
+    private int passwordHashingQueueCapacity = 64;
+
+    private Duration passwordHashingTimeout = Duration.ofSeconds(5);
+
+    private boolean passwordRehashOnLogin = false;
+
+    private List<String> replicaUrls = new ArrayList<>();
+
+    private Duration replicaMaxLag = Duration.ofSeconds(3);
+
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private int queryBudget = 10;
+
+    private Map<String, Integer> queryBudgets = new HashMap<>();
+
+    private double rateLimitPerSecond = 20;
+
+    private int rateLimitBurst = 40;
+
+    private double rateLimitClientPerSecond = 500;
+
+    private int rateLimitClientBurst = 1_000;
+
+    private int writeConcurrencyMinLimit = 1;
+
+    /**
+     * 비워 두면 primary 커넥션 풀 크기에서 writeConcurrencyPoolHeadroom을 뺀 값을 쓴다.
+     */
+    private Integer writeConcurrencyMaxLimit;
+
+    private int writeConcurrencyPoolHeadroom = 2;
 }
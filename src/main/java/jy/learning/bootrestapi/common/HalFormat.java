@@ -0,0 +1,91 @@
+package jy.learning.bootrestapi.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * 같은 HAL 모델을 내보낼 수 있는 인코딩. CBOR와 Smile은 내부 서비스 간 호출에서 본문 크기를 줄이기 위한 것이다.
+ */
+public enum HalFormat {
+
+    HAL_JSON(MediaTypes.HAL_JSON, "hal", ""),
+    CBOR(MediaType.parseMediaType(HalFormat.CBOR_VALUE), "cbor", "-cbor"),
+    SMILE(MediaType.parseMediaType(HalFormat.SMILE_VALUE), "smile", "-smile");
+
+    public static final String CBOR_VALUE = "application/cbor";
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final MediaType mediaType;
+
+    private final String tag;
+
+    private final String eTagSuffix;
+
+    HalFormat(MediaType mediaType, String tag, String eTagSuffix) {
+        this.mediaType = mediaType;
+        this.tag = tag;
+        this.eTagSuffix = eTagSuffix;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * 표현마다 strong ETag가 달라야 하므로 HAL JSON을 제외한 인코딩은 ETag 뒤에 붙여서 구분한다.
+     */
+    public String getETagSuffix() {
+        return eTagSuffix;
+    }
+
+    JsonFactory newFactory() {
+        switch (this) {
+            case CBOR:
+                return new CBORFactory();
+            case SMILE:
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    /**
+     * Accept 헤더에서 우선순위가 가장 높은 인코딩을 고른다. 헤더가 없거나 맞는 것이 없으면 HAL JSON.
+     */
+    public static HalFormat negotiate(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return HAL_JSON;
+        }
+
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return HAL_JSON;
+        }
+
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (HalFormat format : values()) {
+                if (mediaType.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return HAL_JSON;
+    }
+}
@@ -0,0 +1,42 @@
+package jy.learning.bootrestapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.config.HypermediaMappingInformation;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HalFormat마다 HAL 설정을 얹은 ObjectMapper. 바이너리 인코딩도 애플리케이션 ObjectMapper와 같은 빌더로 만들어서
+ * 날짜 형식과 ErrorsSerializer 같은 설정이 JSON과 똑같이 적용된다.
+ */
+@Component
+public class HalObjectMappers {
+
+    private final Map<HalFormat, ObjectMapper> objectMappers = new EnumMap<>(HalFormat.class);
+
+    public HalObjectMappers(ObjectMapper objectMapper,
+                            ObjectProvider<Jackson2ObjectMapperBuilder> builders,
+                            List<HypermediaMappingInformation> mappingInformations) {
+        HypermediaMappingInformation hal = mappingInformations.stream()
+                .filter(information -> information.getMediaTypes().contains(MediaTypes.HAL_JSON))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("HAL support is not configured"));
+
+        for (HalFormat format : HalFormat.values()) {
+            ObjectMapper mapper = format == HalFormat.HAL_JSON
+                    ? objectMapper.copy()
+                    : builders.getObject().factory(format.newFactory()).build();
+            objectMappers.put(format, hal.configureObjectMapper(mapper));
+        }
+    }
+
+    public ObjectMapper get(HalFormat format) {
+        return objectMappers.get(format);
+    }
+}
@@ -0,0 +1,247 @@
+package jy.learning.bootrestapi.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * [start, end) 구간을 id와 함께 저장하는 interval tree. 시작점 순서의 treap에 서브트리의 최대 end를
+ * 붙여 두어서 특정 시점 이전에 모두 끝난 서브트리는 건너뛰고, 포함하는 구간을 시작점 순서로 찾는다.
+ * 찾은 구간 k개가 서로 다른 경로에 흩어질 수 있으므로 최악의 경우 O(k log n)이다.
+ */
+public class IntervalTree<T extends Comparable<? super T>> {
+
+    private final Map<Integer, Node<T>> nodes = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node<T> root;
+
+    public void put(Integer id, T start, T end) {
+        lock.writeLock().lock();
+        try {
+            Node<T> previous = nodes.remove(id);
+            if (previous != null) {
+                root = delete(root, previous);
+            }
+            if (start == null || end == null || start.compareTo(end) >= 0) {
+                return;
+            }
+
+            Node<T> node = new Node<>(id, start, end, ThreadLocalRandom.current().nextInt());
+            root = insert(root, node);
+            nodes.put(id, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            Node<T> node = nodes.remove(id);
+            if (node != null) {
+                root = delete(root, node);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * start <= point < end 인 구간의 id를 시작점 순서로 돌려준다.
+     */
+    public List<Integer> stab(T point) {
+        return stab(point, 0, Integer.MAX_VALUE).getIds();
+    }
+
+    /**
+     * start <= point < end 인 구간 중 시작점 순서로 offset번째부터 limit개의 id와 전체 개수를 돌려준다.
+     * offset + limit개를 채운 뒤로는 id를 모으지 않고 개수만 센다.
+     */
+    public Window stab(T point, long offset, int limit) {
+        Window window = new Window(offset, limit);
+        lock.readLock().lock();
+        try {
+            collect(root, point, window);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return window;
+    }
+
+    private void collect(Node<T> node, T point, Window window) {
+        // 서브트리의 모든 구간이 point 이전에 끝났다.
+        if (node == null || node.maxEnd.compareTo(point) <= 0) {
+            return;
+        }
+
+        collect(node.left, point, window);
+        // 오른쪽 서브트리는 모두 point 이후에 시작한다.
+        if (node.start.compareTo(point) > 0) {
+            return;
+        }
+        if (node.end.compareTo(point) > 0) {
+            window.accept(node.id);
+        }
+        collect(node.right, point, window);
+    }
+
+    private Node<T> insert(Node<T> parent, Node<T> node) {
+        if (parent == null) {
+            return node;
+        }
+
+        if (compare(node, parent) < 0) {
+            parent.left = insert(parent.left, node);
+            if (parent.left.priority > parent.priority) {
+                parent = rotateRight(parent);
+            }
+        } else {
+            parent.right = insert(parent.right, node);
+            if (parent.right.priority > parent.priority) {
+                parent = rotateLeft(parent);
+            }
+        }
+        parent.update();
+        return parent;
+    }
+
+    private Node<T> delete(Node<T> parent, Node<T> node) {
+        if (parent == null) {
+            return null;
+        }
+
+        int comparison = compare(node, parent);
+        if (comparison == 0) {
+            return merge(parent.left, parent.right);
+        }
+        if (comparison < 0) {
+            parent.left = delete(parent.left, node);
+        } else {
+            parent.right = delete(parent.right, node);
+        }
+        parent.update();
+        return parent;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private int compare(Node<T> a, Node<T> b) {
+        int comparison = a.start.compareTo(b.start);
+        return comparison != 0 ? comparison : a.id.compareTo(b.id);
+    }
+
+    public static class Window {
+
+        private final long offset;
+
+        private final int limit;
+
+        private final List<Integer> ids = new ArrayList<>();
+
+        private long total;
+
+        Window(long offset, int limit) {
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        void accept(Integer id) {
+            if (total >= offset && ids.size() < limit) {
+                ids.add(id);
+            }
+            total++;
+        }
+
+        public List<Integer> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    private static class Node<T extends Comparable<? super T>> {
+
+        private final Integer id;
+
+        private final T start;
+
+        private final T end;
+
+        private final int priority;
+
+        private T maxEnd;
+
+        private Node<T> left;
+
+        private Node<T> right;
+
+        Node(Integer id, T start, T end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.compareTo(maxEnd) > 0) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.compareTo(maxEnd) > 0) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package jy.learning.bootrestapi.common;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 최대 크기와 TTL을 가진 in-process LRU 캐시. 크기를 넘거나 TTL이 지난 항목은 제거되고
+ * hit/miss/eviction 횟수를 센다.
+ * 조회는 ConcurrentHashMap을 그대로 읽고 항목에 마지막 사용 시각만 적는다. 크기를 넘으면 한 스레드가
+ * 전체를 훑어 가장 오래 사용하지 않은 항목들을 한꺼번에 지우는 근사 LRU다.
+ */
+public class LruCache<K, V> {
+
+    private final int maximumSize;
+
+    /**
+     * 한 번 정리할 때 이 크기까지 줄인다. 매 put마다 전체를 훑지 않도록 여유를 둔다.
+     */
+    private final int trimSize;
+
+    private final long ttlMillis;
+
+    private final Clock clock;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final Comparator<Map.Entry<K, Entry<V>>> mostRecentFirst =
+            (a, b) -> Long.compare(b.getValue().accessedAt, a.getValue().accessedAt);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public LruCache(int maximumSize, Duration ttl) {
+        this(maximumSize, ttl, Clock.systemUTC());
+    }
+
+    public LruCache(int maximumSize, Duration ttl, Clock clock) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.trimSize = maximumSize - maximumSize / 32;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(clock.millis())) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        entry.accessedAt = System.nanoTime();
+        hits.increment();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, newEntry(value));
+        evictIfFull();
+    }
+
+    /**
+     * 캐시에 살아 있는 값이 order 기준으로 value보다 새로우면 그대로 두고, 아니면 value로 바꾼다.
+     * 먼저 읽기 시작한 조회가 나중에 끝나면서 방금 저장된 값을 예전 값으로 덮어쓰지 않게 한다.
+     *
+     * @return value를 넣었으면 true
+     */
+    public boolean putIfNewer(K key, V value, Comparator<? super V> order) {
+        Entry<V> entry = newEntry(value);
+        long now = clock.millis();
+        boolean stored = entries.compute(key, (k, current) ->
+                current == null || current.isExpired(now) || order.compare(current.value, value) <= 0
+                        ? entry : current) == entry;
+        evictIfFull();
+        return stored;
+    }
+
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private Entry<V> newEntry(V value) {
+        return new Entry<>(value, clock.millis() + ttlMillis, System.nanoTime());
+    }
+
+    private void evictIfFull() {
+        // 다른 스레드가 이미 정리 중이면 잠깐 크기를 넘는 것을 허용한다.
+        if (entries.size() <= maximumSize || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = entries.size() - trimSize;
+            if (excess <= 0) {
+                return;
+            }
+
+            long now = clock.millis();
+            PriorityQueue<Map.Entry<K, Entry<V>>> oldest = new PriorityQueue<>(excess + 1, mostRecentFirst);
+            for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+                if (candidate.getValue().isExpired(now)) {
+                    if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                        evictions.increment();
+                    }
+                    continue;
+                }
+                oldest.offer(candidate);
+                if (oldest.size() > excess) {
+                    oldest.poll();
+                }
+            }
+
+            List<Map.Entry<K, Entry<V>>> victims = new ArrayList<>(oldest);
+            victims.sort(mostRecentFirst.reversed());
+            for (Map.Entry<K, Entry<V>> victim : victims) {
+                if (entries.size() <= trimSize) {
+                    break;
+                }
+                // 훑는 사이에 다시 쓰인 항목은 새 Entry라서 지워지지 않는다.
+                if (entries.remove(victim.getKey(), victim.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private volatile long accessedAt;
+
+        Entry(V value, long expiresAt, long accessedAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.accessedAt = accessedAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
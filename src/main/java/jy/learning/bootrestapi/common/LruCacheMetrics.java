@@ -0,0 +1,38 @@
+package jy.learning.bootrestapi.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * LruCache 통계를 Micrometer 캐시 지표와 같은 이름(cache.gets, cache.evictions, cache.size)으로 내보낸다.
+ */
+public class LruCacheMetrics implements MeterBinder {
+
+    private final LruCache<?, ?> cache;
+
+    private final Tags tags;
+
+    public LruCacheMetrics(LruCache<?, ?> cache, String name) {
+        this.cache = cache;
+        this.tags = Tags.of("cache", name);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.size", cache, c -> c.size())
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> c.getHitCount())
+                .tags(tags).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> c.getMissCount())
+                .tags(tags).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.getEvictionCount())
+                .tags(tags)
+                .register(registry);
+    }
+}
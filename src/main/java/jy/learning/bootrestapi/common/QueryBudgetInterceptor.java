@@ -0,0 +1,69 @@
+package jy.learning.bootrestapi.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * 요청마다 SQL 수와 DB 시간을 재고, 엔드포인트별 예산(my-app.query-budgets, 없으면 my-app.query-budget)을
+ * 넘으면 가장 많이 반복된 문장과 함께 경고를 남긴다. 결과는 요청 속성 QueryStats.ATTRIBUTE로도 남겨서
+ * 테스트에서 확인할 수 있다.
+ * 비동기 응답(예: export)은 본문을 다른 스레드에서 쓰므로 요청 스레드에서 센 것까지만 남기고 스레드를 비운다.
+ */
+@Slf4j
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private final int defaultBudget;
+
+    private final Map<String, Integer> budgets;
+
+    public QueryBudgetInterceptor(AppProperties appProperties) {
+        this.defaultBudget = appProperties.getQueryBudget();
+        this.budgets = appProperties.getQueryBudgets();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(QueryStats.ATTRIBUTE, QueryStats.start());
+        return true;
+    }
+
+    /**
+     * 비동기 처리가 시작되면 afterCompletion은 이 스레드에서 불리지 않으므로 여기서 ThreadLocal을 지운다.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryStats stats = QueryStats.current();
+        QueryStats.clear();
+        if (stats == null) {
+            return;
+        }
+
+        String endpoint = request.getMethod() + " " + pattern(request);
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (stats.getQueryCount() <= budget) {
+            return;
+        }
+
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        log.warn("{} ran {} queries in {} ms (budget {}), most repeated {} times: {}",
+                endpoint, stats.getQueryCount(), stats.getElapsedMillis(), budget,
+                mostRepeated.getValue(), mostRepeated.getKey().replaceAll("\\s+", " ").trim());
+    }
+
+    private String pattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
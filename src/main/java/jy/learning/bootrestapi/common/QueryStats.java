@@ -0,0 +1,70 @@
+package jy.learning.bootrestapi.common;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 요청 하나에서 실행된 SQL 수와 DB 시간. 요청 스레드의 ThreadLocal에 두고 QueryStatsListener가 채운다.
+ * 같은 문장이 여러 번 실행된 것(N+1)을 찾을 수 있게 문장 모양별 횟수도 센다.
+ */
+public class QueryStats {
+
+    public static final String ATTRIBUTE = QueryStats.class.getName();
+
+    private static final int MAX_SHAPES = 100;
+
+    private static final ThreadLocal<QueryStats> current = new ThreadLocal<>();
+
+    private int queryCount;
+
+    private long elapsedMillis;
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        current.set(stats);
+        return stats;
+    }
+
+    public static QueryStats current() {
+        return current.get();
+    }
+
+    public static void clear() {
+        current.remove();
+    }
+
+    void record(String sql, long elapsedMillis) {
+        this.queryCount++;
+        this.elapsedMillis += elapsedMillis;
+        if (shapes.size() < MAX_SHAPES || shapes.containsKey(sql)) {
+            shapes.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getRepeatCount(String sql) {
+        return shapes.getOrDefault(sql, 0);
+    }
+
+    /**
+     * 가장 많이 실행된 문장. 실행된 문장이 없으면 null.
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> shape : shapes.entrySet()) {
+            if (mostRepeated == null || shape.getValue() > mostRepeated.getValue()) {
+                mostRepeated = shape;
+            }
+        }
+        return mostRepeated;
+    }
+}
@@ -0,0 +1,29 @@
+package jy.learning.bootrestapi.common;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * datasource-proxy가 문장 실행마다 불러준다. 현재 스레드에 QueryStats가 없으면 아무것도 하지 않는다.
+ */
+public class QueryStatsListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryStats.current();
+        if (stats == null) {
+            return;
+        }
+
+        // batch 실행은 한 번의 왕복이므로 첫 문장 모양으로 한 번만 센다.
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        stats.record(sql, execInfo.getElapsedTime());
+    }
+}
@@ -0,0 +1,126 @@
+package jy.learning.bootrestapi.common;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 읽기 전용 트랜잭션은 지연이 허용 범위 안인 replica로, 나머지는 primary로 보낸다.
+ * 트랜잭션 속성이 정해진 뒤에 커넥션을 얻어야 하므로 LazyConnectionDataSourceProxy로 감싸서 쓴다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> primaryForced = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final Map<String, DataSource> replicas;
+
+    private volatile List<String> healthyReplicas = Collections.emptyList();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * 현재 스레드의 읽기도 primary에서 하게 한다. 방금 쓴 사용자의 read-your-writes를 위해 쓴다.
+     */
+    public static void forcePrimary() {
+        primaryForced.set(Boolean.TRUE);
+    }
+
+    public static void clearForcePrimary() {
+        primaryForced.remove();
+    }
+
+    public static boolean isPrimaryForced() {
+        return primaryForced.get() != null;
+    }
+
+    /**
+     * work 안의 읽기를 primary에서 하고, 끝나면 원래 상태로 돌린다. 캐시를 채우거나 좌석을 계산하는 것처럼
+     * replica의 지연된 값을 쓰면 안 되는 읽기에 쓴다.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = primaryForced.get();
+        primaryForced.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                primaryForced.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || primaryForced.get() != null) {
+            return PRIMARY;
+        }
+
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public synchronized void markHealthy(String replica) {
+        if (!healthyReplicas.contains(replica)) {
+            List<String> updated = new ArrayList<>(healthyReplicas);
+            updated.add(replica);
+            healthyReplicas = Collections.unmodifiableList(updated);
+        }
+    }
+
+    public synchronized void markLagging(String replica) {
+        if (healthyReplicas.contains(replica)) {
+            List<String> updated = new ArrayList<>(healthyReplicas);
+            updated.remove(replica);
+            healthyReplicas = Collections.unmodifiableList(updated);
+        }
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package jy.learning.bootrestapi.common;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 쓰기 요청을 보낸 사용자는 일정 시간 동안 읽기도 primary에서 하게 해서
+ * replica 지연 때문에 자기가 방금 만들거나 고친 이벤트를 못 보는 일이 없게 한다.
+ * 쓰기 요청 자체는 안에서 하는 조회(수정할 이벤트, version 비교 등)까지 모두 primary에서 한다.
+ */
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final LruCache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(AppProperties appProperties) {
+        this.recentWriters = new LruCache<>(100_000, appProperties.getReadYourWritesWindow());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String username = currentUsername();
+        if (!isRead(request)) {
+            ReadWriteRoutingDataSource.forcePrimary();
+            // 응답을 다 쓰기 전에 보낸 다음 GET도 primary로 가도록 요청이 시작될 때 표시한다.
+            markWriter(username);
+        } else if (username != null && recentWriters.get(username) != null) {
+            ReadWriteRoutingDataSource.forcePrimary();
+        }
+        return true;
+    }
+
+    /**
+     * 비동기 처리가 시작되면 afterCompletion은 이 스레드에서 불리지 않으므로 여기서 primary 강제를 푼다.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadWriteRoutingDataSource.clearForcePrimary();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadWriteRoutingDataSource.clearForcePrimary();
+        // 오래 걸린 쓰기도 끝난 시점부터 다시 창을 잰다.
+        if (!isRead(request)) {
+            markWriter(currentUsername());
+        }
+    }
+
+    private void markWriter(String username) {
+        if (username != null) {
+            recentWriters.put(username, Boolean.TRUE);
+        }
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,76 @@
+package jy.learning.bootrestapi.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * primary에 heartbeat를 쓰고 각 replica에서 읽은 값과 비교해서 지연이 허용 범위를 넘은 replica를
+ * 라우팅에서 뺀다. 지연은 검사 주기 단위로 측정되므로 최대 지연은 검사 주기보다 길게 잡는다.
+ */
+@Slf4j
+@Component
+public class ReplicaLagMonitor {
+
+    private static final int HEARTBEAT_ID = 1;
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    private final JdbcTemplate primary;
+
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource, AppProperties appProperties) {
+        this.routingDataSource = routingDataSource;
+        this.primary = new JdbcTemplate(routingDataSource.getPrimary());
+        this.maxLag = appProperties.getReplicaMaxLag();
+    }
+
+    @Scheduled(fixedDelayString = "${my-app.replica-lag-check-delay:PT1S}")
+    public void check() {
+        Map<String, DataSource> replicas = routingDataSource.getReplicas();
+        if (replicas.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            beat(now);
+        } catch (DataAccessException e) {
+            log.warn("could not write replication heartbeat", e);
+            return;
+        }
+
+        replicas.forEach((name, replica) -> {
+            try {
+                Timestamp beatAt = new JdbcTemplate(replica).queryForObject(
+                        "select beat_at from replication_heartbeat where id = ?", Timestamp.class, HEARTBEAT_ID);
+                Duration lag = beatAt == null ? null : Duration.between(beatAt.toLocalDateTime(), now);
+                if (lag != null && lag.compareTo(maxLag) <= 0) {
+                    routingDataSource.markHealthy(name);
+                } else {
+                    log.warn("{} is {} behind primary", name, lag);
+                    routingDataSource.markLagging(name);
+                }
+            } catch (DataAccessException e) {
+                log.warn("could not read replication heartbeat from {}", name, e);
+                routingDataSource.markLagging(name);
+            }
+        });
+    }
+
+    private void beat(LocalDateTime now) {
+        Timestamp beatAt = Timestamp.valueOf(now);
+        if (primary.update("update replication_heartbeat set beat_at = ? where id = ?", beatAt, HEARTBEAT_ID) == 0) {
+            primary.update("insert into replication_heartbeat (id, beat_at) values (?, ?)", HEARTBEAT_ID, beatAt);
+        }
+    }
+}
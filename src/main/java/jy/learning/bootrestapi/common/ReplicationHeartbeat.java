@@ -0,0 +1,22 @@
+package jy.learning.bootrestapi.common;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * primary에 주기적으로 기록하고 replica에서 읽어서 복제 지연을 잰다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+public class ReplicationHeartbeat {
+
+    @Id
+    private Integer id;
+
+    private LocalDateTime beatAt;
+}
@@ -0,0 +1,105 @@
+package jy.learning.bootrestapi.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키를 동시에 읽으려는 요청들을 하나로 합친다. 먼저 온 요청(leader)만 loader를 실행하고,
+ * 그 사이에 온 요청들은 leader의 결과나 예외를 그대로 받는다. 기다리는 쪽은 timeout을 넘기면
+ * SingleFlightTimeoutException을 받는다. 로드가 끝나면 키를 지우므로 결과를 보관하지는 않는다.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final long timeoutMillis;
+
+    private final AtomicLong loadCount = new AtomicLong();
+
+    private final AtomicLong collapsedCount = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    public SingleFlight(String name, Duration timeout) {
+        this.name = name;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            collapsedCount.incrementAndGet();
+            return await(key, existing);
+        }
+
+        loadCount.incrementAndGet();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> flight) {
+        try {
+            return flight.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeoutCount.incrementAndGet();
+            throw new SingleFlightTimeoutException("Timed out waiting for " + name + " " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name + " " + key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    public long getCollapsedCount() {
+        return collapsedCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("name", name);
+        FunctionCounter.builder("single-flight.loads", this, SingleFlight::getLoadCount)
+                .tags(tags).register(registry);
+        FunctionCounter.builder("single-flight.collapsed", this, SingleFlight::getCollapsedCount)
+                .tags(tags).register(registry);
+        FunctionCounter.builder("single-flight.timeouts", this, SingleFlight::getTimeoutCount)
+                .tags(tags).register(registry);
+    }
+}
@@ -0,0 +1,15 @@
+package jy.learning.bootrestapi.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 다른 요청이 진행 중인 같은 키의 로드를 기다리다 시간을 넘겼을 때 던진다. DB가 느린 상황이므로 503으로 응답한다.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SingleFlightTimeoutException extends RuntimeException {
+
+    public SingleFlightTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,51 @@
+package jy.learning.bootrestapi.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 초당 permitsPerSecond 개씩 채워지고 최대 burst 개까지 쌓이는 토큰 버킷.
+ * 남은 토큰 수 대신 "버킷이 가득 차는 시각"(GCRA의 theoretical arrival time) 하나만 AtomicLong에 두고
+ * CAS로 갱신하므로 락 없이 동작한다.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long capacityNanos;
+
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.capacityNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * 토큰 하나를 꺼낸다. 꺼냈으면 0, 모자라면 토큰 하나가 채워질 때까지 기다려야 하는 나노초를 돌려준다.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 버킷이 가득 차 있으면 지금 버려도 다음 요청에서 새로 만든 것과 구분되지 않는다.
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() <= nowNanos;
+    }
+}
@@ -3,6 +3,7 @@ package jy.learning.bootrestapi.configs;
 import jy.learning.bootrestapi.accounts.Account;
 import jy.learning.bootrestapi.accounts.AccountRole;
 import jy.learning.bootrestapi.accounts.AccountService;
+import jy.learning.bootrestapi.accounts.BoundedPasswordEncoder;
 import jy.learning.bootrestapi.common.AppProperties;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +11,15 @@ import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 public class AppConfig {
@@ -22,8 +30,20 @@ public class AppConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(AppProperties appProperties) {
+        String idForEncode = "bcrypt";
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(idForEncode, new BCryptPasswordEncoder(appProperties.getPasswordBcryptStrength()));
+        encoders.put("noop", NoOpPasswordEncoder.getInstance());
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder());
+        encoders.put("scrypt", new SCryptPasswordEncoder());
+        PasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder,
+                appProperties.getPasswordHashingThreads(),
+                appProperties.getPasswordHashingQueueCapacity(),
+                appProperties.getPasswordHashingTimeout(),
+                appProperties.isPasswordRehashOnLogin());
     }
 
     @Bean
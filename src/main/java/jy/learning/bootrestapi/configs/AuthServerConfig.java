@@ -1,8 +1,11 @@
 package jy.learning.bootrestapi.configs;
 
 import jy.learning.bootrestapi.accounts.AccountService;
+import jy.learning.bootrestapi.common.AdmissionControlInterceptor;
 import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.tokens.TokenMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -11,7 +14,13 @@ import org.springframework.security.oauth2.config.annotation.web.configuration.A
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
 import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @EnableAuthorizationServer
@@ -29,6 +38,12 @@ public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
 
     private final AppProperties appProperties;
 
+    private final ObjectProvider<JwtAccessTokenConverter> accessTokenConverter;
+
+    private final TokenMetrics tokenMetrics;
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
     @Override
     public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
         security.passwordEncoder(passwordEncoder);
@@ -50,6 +65,17 @@ public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
     public void configure(AuthorizationServerEndpointsConfigurer endpoints) throws Exception {
         endpoints.authenticationManager(authenticationManager)
                 .userDetailsService(accountService)
-                .tokenStore(tokenStore);
+                .tokenStore(tokenStore)
+                // /oauth/** 는 WebConfig의 인터셉터가 붙지 않는 별도 핸들러 매핑이라 여기서 따로 건다.
+                .addInterceptor(admissionControlInterceptor);
+        accessTokenConverter.ifAvailable(endpoints::accessTokenConverter);
+
+        // tokenEnhancer를 지정하면 JWT 변환기를 체인 끝에 직접 넣어야 한다.
+        List<TokenEnhancer> tokenEnhancers = new ArrayList<>();
+        tokenEnhancers.add(tokenMetrics);
+        accessTokenConverter.ifAvailable(tokenEnhancers::add);
+        TokenEnhancerChain tokenEnhancerChain = new TokenEnhancerChain();
+        tokenEnhancerChain.setTokenEnhancers(tokenEnhancers);
+        endpoints.tokenEnhancer(tokenEnhancerChain);
     }
 }
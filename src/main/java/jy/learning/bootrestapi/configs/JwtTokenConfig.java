@@ -0,0 +1,69 @@
+package jy.learning.bootrestapi.configs;
+
+import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.tokens.AccountUserAuthenticationConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@ConditionalOnProperty(prefix = "my-app", name = "token-format", havingValue = "jwt")
+@RequiredArgsConstructor
+public class JwtTokenConfig {
+
+    /**
+     * application.properties에 들어 있는 예시 값. 이 값으로는 JWT 모드를 켤 수 없다.
+     */
+    static final String PLACEHOLDER_SIGNING_KEY = "change-me-to-a-long-random-secret";
+
+    /**
+     * HS256 키는 해시 출력 길이(256비트)보다 짧으면 안 된다.
+     */
+    static final int MIN_SYMMETRIC_KEY_BYTES = 32;
+
+    private final AppProperties appProperties;
+
+    @Bean
+    public JwtAccessTokenConverter accessTokenConverter() {
+        DefaultAccessTokenConverter accessTokenConverter = new DefaultAccessTokenConverter();
+        accessTokenConverter.setUserTokenConverter(new AccountUserAuthenticationConverter());
+
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setAccessTokenConverter(accessTokenConverter);
+        // 대칭 키 문자열이나 PEM 형식 RSA 개인 키 모두 받는다. 검증 키는 여기서 한 번 만들어 메모리에 둔다.
+        converter.setSigningKey(validateSigningKey(appProperties.getTokenSigningKey()));
+        return converter;
+    }
+
+    @Bean
+    public TokenStore tokenStore(JwtAccessTokenConverter accessTokenConverter) {
+        return new JwtTokenStore(accessTokenConverter);
+    }
+
+    /**
+     * 서명 키가 비었거나 예시 값이거나 너무 짧은 대칭 키면 기동에 실패한다. PEM 형식 RSA 키는 길이를 따로 보지 않는다.
+     */
+    static String validateSigningKey(String signingKey) {
+        if (signingKey == null || signingKey.trim().isEmpty()) {
+            throw new IllegalStateException("my-app.token-signing-key is required when my-app.token-format=jwt");
+        }
+        if (signingKey.startsWith("-----BEGIN")) {
+            return signingKey;
+        }
+        if (PLACEHOLDER_SIGNING_KEY.equals(signingKey)) {
+            throw new IllegalStateException("my-app.token-signing-key must be changed from the example value");
+        }
+        if (signingKey.getBytes(StandardCharsets.UTF_8).length < MIN_SYMMETRIC_KEY_BYTES) {
+            throw new IllegalStateException("my-app.token-signing-key must be at least "
+                    + MIN_SYMMETRIC_KEY_BYTES + " bytes");
+        }
+        return signingKey;
+    }
+}
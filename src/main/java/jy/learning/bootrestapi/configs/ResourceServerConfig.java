@@ -1,9 +1,11 @@
 package jy.learning.bootrestapi.configs;
 
-import jy.learning.bootrestapi.common.AppProperties;
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.DefaultAuthenticationEventPublisher;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
@@ -12,11 +14,15 @@ import org.springframework.security.oauth2.provider.error.OAuth2AccessDeniedHand
 
 @Configuration
 @EnableResourceServer
+@RequiredArgsConstructor
 public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
 
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     @Override
     public void configure(ResourceServerSecurityConfigurer resources) throws Exception {
-        resources.resourceId("event");
+        resources.resourceId("event")
+                .eventPublisher(new DefaultAuthenticationEventPublisher(applicationEventPublisher));
     }
 
     @Override
@@ -25,8 +31,13 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
             .anonymous()
                 .and()
             .authorizeRequests()
+                // 전체 테이블을 한 번에 흘려보내므로 익명 요청은 받지 않는다.
+                .mvcMatchers(HttpMethod.GET, "/api/events/export")
+                    .authenticated()
                 .mvcMatchers(HttpMethod.GET, "/api/**")
                     .permitAll()
+                .requestMatchers(EndpointRequest.to("health"))
+                    .permitAll()
                 .anyRequest()
                     .authenticated()
                 .and()
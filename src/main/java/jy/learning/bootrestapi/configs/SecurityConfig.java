@@ -1,7 +1,10 @@
 package jy.learning.bootrestapi.configs;
 
 import jy.learning.bootrestapi.accounts.AccountService;
+import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.tokens.CachingJdbcTokenStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,7 +15,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.provider.token.TokenStore;
-import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+
+import javax.sql.DataSource;
 
 @Configuration
 @EnableWebSecurity
@@ -23,9 +27,16 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final DataSource dataSource;
+
+    private final AppProperties appProperties;
+
     @Bean
+    @ConditionalOnProperty(prefix = "my-app", name = "token-format", havingValue = "opaque", matchIfMissing = true)
     public TokenStore tokenStore() {
-        return new InMemoryTokenStore();
+        return new CachingJdbcTokenStore(dataSource,
+                appProperties.getTokenNearCacheSize(),
+                appProperties.getTokenNearCacheTtl());
     }
 
     @Bean
@@ -0,0 +1,46 @@
+package jy.learning.bootrestapi.configs;
+
+import jy.learning.bootrestapi.common.AdmissionControlInterceptor;
+import jy.learning.bootrestapi.common.HalFormat;
+import jy.learning.bootrestapi.common.HalObjectMappers;
+import jy.learning.bootrestapi.common.QueryBudgetInterceptor;
+import jy.learning.bootrestapi.common.ReadYourWritesInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 거절할 요청은 다른 인터셉터가 일을 시작하기 전에 거른다.
+        registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(readYourWritesInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(queryBudgetInterceptor).addPathPatterns("/api/**");
+    }
+
+    /**
+     * 기본 CBOR/Smile 컨버터를 대신해서 EntityModel, PagedModel을 HAL 모양(_links, _embedded)으로 쓴다.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(HalObjectMappers halObjectMappers) {
+        return new MappingJackson2CborHttpMessageConverter(halObjectMappers.get(HalFormat.CBOR));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(HalObjectMappers halObjectMappers) {
+        return new MappingJackson2SmileHttpMessageConverter(halObjectMappers.get(HalFormat.SMILE));
+    }
+}
@@ -0,0 +1,31 @@
+package jy.learning.bootrestapi.enrollments;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jy.learning.bootrestapi.accounts.Account;
+import jy.learning.bootrestapi.accounts.AccountSerializer;
+import jy.learning.bootrestapi.events.Event;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Builder @AllArgsConstructor @NoArgsConstructor
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_enrollment_event_account", columnNames = {"event_id", "account_id"})
+})
+public class Enrollment {
+
+    @Id @GeneratedValue
+    private Integer id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnore
+    private Event event;
+    @ManyToOne
+    @JsonSerialize(using = AccountSerializer.class)
+    private Account account;
+    private LocalDateTime enrolledAt;
+
+}
@@ -0,0 +1,64 @@
+package jy.learning.bootrestapi.enrollments;
+
+import jy.learning.bootrestapi.accounts.Account;
+import jy.learning.bootrestapi.accounts.CurrentUser;
+import jy.learning.bootrestapi.events.Event;
+import jy.learning.bootrestapi.events.EventController;
+import jy.learning.bootrestapi.events.EventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+@Controller
+@RequestMapping(value = "/api/events/{eventId}/enrollments", produces = MediaTypes.HAL_JSON_VALUE)
+@RequiredArgsConstructor
+public class EnrollmentController {
+
+    private final EventService eventService;
+
+    private final EnrollmentService enrollmentService;
+
+    @PostMapping
+    public ResponseEntity enroll(@PathVariable Integer eventId, @CurrentUser Account account) {
+        Optional<Event> optionalEvent = this.eventService.findById(eventId);
+        if (!optionalEvent.isPresent())
+            return ResponseEntity.notFound().build();
+
+        if (!this.enrollmentService.isOpenForEnrollment(optionalEvent.get(), LocalDateTime.now()))
+            return ResponseEntity.badRequest().build();
+
+        Optional<Enrollment> enrollment = this.enrollmentService.enroll(optionalEvent.get(), account);
+        if (!enrollment.isPresent())
+            return new ResponseEntity(HttpStatus.CONFLICT);
+
+        WebMvcLinkBuilder enrollmentLinkBuilder = linkTo(EnrollmentController.class, eventId);
+        EntityModel<Enrollment> entityModel = EntityModel.of(enrollment.get());
+        entityModel.add(enrollmentLinkBuilder.withSelfRel());
+        entityModel.add(linkTo(EventController.class).slash(eventId).withRel("event"));
+        entityModel.add(enrollmentLinkBuilder.withRel("cancel-enrollment"));
+        entityModel.add(Link.of("/docs/index.html#resources-enrollments-create").withRel("profile"));
+        return ResponseEntity.created(enrollmentLinkBuilder.toUri()).body(entityModel);
+    }
+
+    @DeleteMapping
+    public ResponseEntity cancel(@PathVariable Integer eventId, @CurrentUser Account account) {
+        if (!this.enrollmentService.cancel(eventId, account))
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.noContent().build();
+    }
+}
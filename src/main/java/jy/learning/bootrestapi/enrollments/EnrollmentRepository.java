@@ -0,0 +1,26 @@
+package jy.learning.bootrestapi.enrollments;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer> {
+
+    boolean existsByEventIdAndAccountId(Integer eventId, Integer accountId);
+
+    /**
+     * [eventId, 등록 수]
+     */
+    @Query("select e.event.id, count(e) from Enrollment e where e.event.id in :eventIds group by e.event.id")
+    List<Object[]> countByEventIds(@Param("eventIds") Collection<Integer> eventIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Enrollment e where e.event.id = :eventId and e.account.id = :accountId")
+    int deleteByEventIdAndAccountId(@Param("eventId") Integer eventId, @Param("accountId") Integer accountId);
+}
@@ -0,0 +1,88 @@
+package jy.learning.bootrestapi.enrollments;
+
+import jy.learning.bootrestapi.accounts.Account;
+import jy.learning.bootrestapi.events.Event;
+import jy.learning.bootrestapi.events.EventRepository;
+import jy.learning.bootrestapi.events.EventStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class EnrollmentService {
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final EventRepository eventRepository;
+
+    private final SeatLedger seatLedger;
+
+    /**
+     * 등록을 받는 상태(BEGAN_ENROLLMENT)이고 now가 등록 기간 안이면 true. 기간의 빈 쪽은 열려 있는 것으로 본다.
+     */
+    public boolean isOpenForEnrollment(Event event, LocalDateTime now) {
+        return event.getEventStatus() == EventStatus.BEGAN_ENROLLMENT
+                && (event.getBeginEnrollmentDateTime() == null || !now.isBefore(event.getBeginEnrollmentDateTime()))
+                && (event.getCloseEnrollmentDateTime() == null || now.isBefore(event.getCloseEnrollmentDateTime()));
+    }
+
+    /**
+     * 좌석을 먼저 확보한 뒤 등록을 저장한다. 등록 기간이 아니거나 이미 등록했거나 정원이 찼으면 비어 있는 값을 돌려준다.
+     */
+    public Optional<Enrollment> enroll(Event event, Account account) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!isOpenForEnrollment(event, now)) {
+            return Optional.empty();
+        }
+        if (enrollmentRepository.existsByEventIdAndAccountId(event.getId(), account.getId())) {
+            return Optional.empty();
+        }
+        Optional<SeatLedger.Seat> seat = seatLedger.acquire(event.getId());
+        if (!seat.isPresent()) {
+            return Optional.empty();
+        }
+
+        Enrollment enrollment = Enrollment.builder()
+                .event(event)
+                .account(account)
+                .enrolledAt(now)
+                .build();
+        boolean saved = false;
+        Enrollment result;
+        try {
+            result = enrollmentRepository.save(enrollment);
+            saved = true;
+        } catch (DataIntegrityViolationException e) {
+            // 같은 계정의 동시 요청이 먼저 저장됐다.
+            return Optional.empty();
+        } finally {
+            if (!saved) {
+                seat.get().release();
+            }
+        }
+
+        if (!seat.get().confirm()) {
+            // 저장하는 사이 리스가 만료돼 좌석을 잃었고 다시 잡을 자리도 없다.
+            enrollmentRepository.delete(result);
+            return Optional.empty();
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * 등록 삭제와 좌석 반납을 한 트랜잭션으로 해서 SeatReconciler가 그 중간 상태를 보지 않게 한다.
+     */
+    @Transactional
+    public boolean cancel(Integer eventId, Account account) {
+        if (enrollmentRepository.deleteByEventIdAndAccountId(eventId, account.getId()) == 0) {
+            return false;
+        }
+        eventRepository.releaseSeats(eventId, 1);
+        return true;
+    }
+}
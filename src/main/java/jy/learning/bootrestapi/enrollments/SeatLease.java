@@ -0,0 +1,31 @@
+package jy.learning.bootrestapi.enrollments;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 인스턴스(owner)가 이벤트에서 선점해 들고 있는 좌석 수. 인스턴스가 주기적으로 갱신하고,
+ * 갱신이 끊긴 행은 죽은 인스턴스의 것으로 보고 SeatReconciler가 좌석을 회수한다.
+ */
+@Builder @AllArgsConstructor @NoArgsConstructor
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_seat_lease_event_owner", columnNames = {"eventId", "owner"})
+}, indexes = {
+        @Index(name = "idx_seat_lease_renewed_at", columnList = "renewedAt")
+})
+public class SeatLease {
+
+    @Id @GeneratedValue
+    private Integer id;
+    @Column(nullable = false)
+    private Integer eventId;
+    @Column(nullable = false)
+    private String owner;
+    private int seats;
+    private LocalDateTime renewedAt;
+
+}
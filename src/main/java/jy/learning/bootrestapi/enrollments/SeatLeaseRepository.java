@@ -0,0 +1,46 @@
+package jy.learning.bootrestapi.enrollments;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SeatLeaseRepository extends JpaRepository<SeatLease, Integer> {
+
+    @Transactional
+    @Modifying
+    @Query("update SeatLease l set l.seats = l.seats + :seats, l.renewedAt = :now " +
+            "where l.eventId = :eventId and l.owner = :owner")
+    int addSeats(@Param("eventId") Integer eventId, @Param("owner") String owner,
+                 @Param("seats") int seats, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update SeatLease l set l.seats = :seats, l.renewedAt = :now " +
+            "where l.eventId = :eventId and l.owner = :owner")
+    int renew(@Param("eventId") Integer eventId, @Param("owner") String owner,
+              @Param("seats") int seats, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SeatLease l where l.eventId = :eventId and l.owner = :owner")
+    int deleteByEventIdAndOwner(@Param("eventId") Integer eventId, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SeatLease l where l.renewedAt < :liveSince")
+    int deleteExpired(@Param("liveSince") LocalDateTime liveSince);
+
+    /**
+     * [eventId, 살아 있는 인스턴스들이 들고 있는 좌석 합]
+     */
+    @Query("select l.eventId, sum(l.seats) from SeatLease l " +
+            "where l.eventId in :eventIds and l.renewedAt >= :liveSince group by l.eventId")
+    List<Object[]> sumLiveSeats(@Param("eventIds") Collection<Integer> eventIds,
+                                @Param("liveSince") LocalDateTime liveSince);
+}
@@ -0,0 +1,295 @@
+package jy.learning.bootrestapi.enrollments;
+
+import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.common.ReadWriteRoutingDataSource;
+import jy.learning.bootrestapi.events.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 이벤트별 좌석을 DB에서 블록 단위로 선점해 두고 메모리에서 CAS로 나눠준다.
+ * DB의 reservedSeats는 조건부 update로만 늘어나므로 인스턴스가 여러 개여도 정원을 넘지 않고,
+ * 요청마다 이벤트 행을 잠그지 않는다. 한동안 쓰이지 않은 좌석은 DB로 돌려준다.
+ *
+ * 들고 있는 좌석 수(남은 좌석 + 저장 중인 등록)는 SeatLease 행에 주기적으로 기록한다. 선점할 때는 행을 먼저
+ * 늘리고 나서 reservedSeats를 늘리므로 행의 값이 실제보다 작아지는 순간이 없고, 인스턴스가 죽으면
+ * 갱신이 끊긴 행을 보고 SeatReconciler가 좌석을 회수한다. 리스가 만료된 풀은 좌석을 내주지 않고 버린다.
+ */
+@Slf4j
+@Component
+public class SeatLedger implements DisposableBean {
+
+    private final EventRepository eventRepository;
+
+    private final SeatLeaseRepository seatLeaseRepository;
+
+    private final int blockSize;
+
+    private final long idleTimeoutMillis;
+
+    private final long leaseTimeoutMillis;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Map<Integer, SeatPool> pools = new ConcurrentHashMap<>();
+
+    public SeatLedger(EventRepository eventRepository,
+                      SeatLeaseRepository seatLeaseRepository,
+                      AppProperties appProperties) {
+        this.eventRepository = eventRepository;
+        this.seatLeaseRepository = seatLeaseRepository;
+        this.blockSize = appProperties.getEnrollmentSeatBlockSize();
+        this.idleTimeoutMillis = appProperties.getEnrollmentLeaseIdleTimeout().toMillis();
+        this.leaseTimeoutMillis = appProperties.getEnrollmentLeaseTimeout().toMillis();
+    }
+
+    /**
+     * 좌석 하나를 잡는다. 등록을 저장했으면 Seat.confirm(), 저장하지 못했으면 Seat.release()를 불러야 한다.
+     */
+    public Optional<Seat> acquire(Integer eventId) {
+        while (true) {
+            SeatPool pool = pools.computeIfAbsent(eventId, SeatPool::new);
+            if (pool.isFresh(System.currentTimeMillis()) && pool.tryTake()) {
+                return Optional.of(new Seat(pool));
+            }
+
+            // 좌석이 떨어졌거나 리스를 갱신할 때만 이벤트별로 한 스레드가 DB에 간다.
+            synchronized (pool) {
+                if (pool.retired) {
+                    continue;
+                }
+                renew(pool, false);
+                if (pool.tryTake()) {
+                    return Optional.of(new Seat(pool));
+                }
+                int leased = lease(pool);
+                if (leased == 0) {
+                    return Optional.empty();
+                }
+                pool.available.addAndGet(leased);
+            }
+        }
+    }
+
+    private int lease(SeatPool pool) {
+        while (true) {
+            int remaining = ReadWriteRoutingDataSource.onPrimary(
+                    () -> eventRepository.findRemainingSeats(pool.eventId).orElse(0));
+            int seats = Math.min(blockSize, remaining);
+            if (seats <= 0) {
+                return 0;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            if (seatLeaseRepository.addSeats(pool.eventId, owner, seats, now) == 0) {
+                seatLeaseRepository.save(SeatLease.builder()
+                        .eventId(pool.eventId).owner(owner).seats(seats).renewedAt(now).build());
+            }
+            pool.renewedAt = System.currentTimeMillis();
+            if (eventRepository.reserveSeats(pool.eventId, seats) == 1) {
+                return seats;
+            }
+            seatLeaseRepository.addSeats(pool.eventId, owner, -seats, now);
+        }
+    }
+
+    /**
+     * pool의 락을 잡고 부른다. 리스가 만료됐으면 좌석을 버리고(SeatReconciler가 DB에서 회수한다),
+     * 아니면 지금 들고 있는 좌석 수로 행을 갱신한다.
+     */
+    private void renew(SeatPool pool, boolean force) {
+        long now = System.currentTimeMillis();
+        if (pool.renewedAt == 0 || (!force && now - pool.renewedAt < leaseTimeoutMillis / 2)) {
+            return;
+        }
+
+        int holding = pool.available.get() + pool.inFlight.get();
+        if (now - pool.renewedAt >= leaseTimeoutMillis
+                || seatLeaseRepository.renew(pool.eventId, owner, holding, LocalDateTime.now()) == 0) {
+            if (holding > 0) {
+                log.warn("lease of event {} expired, forfeiting {} seats", pool.eventId, holding);
+            }
+            pool.forfeit();
+            seatLeaseRepository.deleteByEventIdAndOwner(pool.eventId, owner);
+            return;
+        }
+        pool.renewedAt = now;
+    }
+
+    @Scheduled(fixedDelayString = "${my-app.enrollment-lease-renew-delay:PT20S}")
+    public void renewLeases() {
+        pools.values().forEach(pool -> {
+            synchronized (pool) {
+                if (!pool.retired) {
+                    renew(pool, true);
+                }
+            }
+        });
+    }
+
+    /**
+     * 한동안 쓰이지 않은 좌석을 DB로 돌려주고, 저장 중인 등록도 없으면 풀을 지운다.
+     * 등록이 끝난 이벤트는 더 이상 좌석을 잡지 않으므로 여기서 정리된다.
+     */
+    @Scheduled(fixedDelayString = "${my-app.enrollment-lease-release-delay:PT10S}")
+    public void releaseIdleSeats() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        pools.values().forEach(pool -> {
+            if (pool.lastUsed.get() >= cutoff) {
+                return;
+            }
+            synchronized (pool) {
+                giveBack(pool);
+                if (pool.inFlight.get() == 0) {
+                    retire(pool);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(pool -> {
+            synchronized (pool) {
+                giveBack(pool);
+                retire(pool);
+            }
+        });
+    }
+
+    private void giveBack(SeatPool pool) {
+        // 만료된 리스의 좌석은 SeatReconciler가 회수하므로 여기서 또 돌려주면 안 된다.
+        renew(pool, false);
+        int seats = pool.available.getAndSet(0);
+        if (seats > 0 && eventRepository.releaseSeats(pool.eventId, seats) == 0) {
+            log.warn("could not release {} seats of event {}", seats, pool.eventId);
+        }
+        if (pool.renewedAt > 0) {
+            seatLeaseRepository.renew(pool.eventId, owner, pool.inFlight.get(), LocalDateTime.now());
+        }
+    }
+
+    private void retire(SeatPool pool) {
+        pool.retired = true;
+        pool.forfeit();
+        pools.remove(pool.eventId, pool);
+        seatLeaseRepository.deleteByEventIdAndOwner(pool.eventId, owner);
+    }
+
+    public int getAvailableSeats(Integer eventId) {
+        SeatPool pool = pools.get(eventId);
+        return pool == null ? 0 : pool.available.get();
+    }
+
+    public int getPoolCount() {
+        return pools.size();
+    }
+
+    public class Seat {
+
+        private final SeatPool pool;
+
+        private final int generation;
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Seat(SeatPool pool) {
+            this.pool = pool;
+            this.generation = pool.generation;
+        }
+
+        /**
+         * 등록이 커밋됐다. 이제 이 좌석은 등록 행으로 센다.
+         * 좌석을 받은 뒤 리스가 만료됐으면 SeatReconciler가 이 좌석을 이미 회수했을 수 있으므로 DB에서 한 자리를
+         * 다시 잡는다. 정원이 차서 잡지 못하면 false를 돌려주고, 부른 쪽은 저장한 등록을 지워야 한다.
+         */
+        public boolean confirm() {
+            if (!done.compareAndSet(false, true)) {
+                return true;
+            }
+            boolean expired;
+            synchronized (pool) {
+                expired = pool.generation != generation || !pool.isLive(System.currentTimeMillis());
+                pool.inFlight.decrementAndGet();
+            }
+            return !expired || eventRepository.reserveSeats(pool.eventId, 1) == 1;
+        }
+
+        /**
+         * 등록을 저장하지 못했다. 좌석을 받은 뒤 리스가 만료됐으면 이미 회수 대상이므로 버린다.
+         */
+        public void release() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (pool) {
+                if (pool.generation == generation) {
+                    pool.available.incrementAndGet();
+                }
+                pool.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private class SeatPool {
+
+        private final Integer eventId;
+
+        private final AtomicInteger available = new AtomicInteger();
+
+        // 풀에서 꺼냈지만 아직 등록이 저장되지 않은 좌석
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicLong lastUsed = new AtomicLong(System.currentTimeMillis());
+
+        private volatile long renewedAt;
+
+        private volatile int generation;
+
+        private volatile boolean retired;
+
+        SeatPool(Integer eventId) {
+            this.eventId = eventId;
+        }
+
+        boolean isFresh(long now) {
+            return now - renewedAt < leaseTimeoutMillis / 2;
+        }
+
+        boolean isLive(long now) {
+            return renewedAt != 0 && now - renewedAt < leaseTimeoutMillis;
+        }
+
+        boolean tryTake() {
+            lastUsed.set(System.currentTimeMillis());
+            // 행에 기록하는 available + inFlight가 잠깐이라도 작아지지 않게 inFlight를 먼저 늘린다.
+            inFlight.incrementAndGet();
+            int seats;
+            do {
+                seats = available.get();
+                if (seats == 0) {
+                    inFlight.decrementAndGet();
+                    return false;
+                }
+            } while (!available.compareAndSet(seats, seats - 1));
+            return true;
+        }
+
+        void forfeit() {
+            available.set(0);
+            generation++;
+            renewedAt = 0;
+        }
+    }
+}
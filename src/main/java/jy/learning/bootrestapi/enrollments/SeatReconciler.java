@@ -0,0 +1,84 @@
+package jy.learning.bootrestapi.enrollments;
+
+import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.common.ReadWriteRoutingDataSource;
+import jy.learning.bootrestapi.events.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event.reservedSeats를 등록 수 + 살아 있는 인스턴스가 들고 있는 좌석 수로 다시 맞춘다.
+ * 인스턴스가 좌석을 돌려주지 못하고 죽으면 그 좌석은 이 작업으로만 돌아온다.
+ *
+ * reservedSeats, 리스 합, 등록 수 순서로 읽는다. 등록된 좌석은 등록이 커밋된 뒤에야 리스 행에서 빠지므로,
+ * 리스를 먼저 읽으면 옮겨 가는 좌석은 양쪽에 다 세어질 수는 있어도 빠지지는 않는다. 더 센 좌석은 다음 실행에서
+ * 바로잡힌다. 그 사이에 선점, 반납, 취소로 reservedSeats가 바뀌었으면 조건부 update가 실패하므로 덮어쓰지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeatReconciler {
+
+    private final EventRepository eventRepository;
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final SeatLeaseRepository seatLeaseRepository;
+
+    private final AppProperties appProperties;
+
+    @Scheduled(fixedDelayString = "${my-app.enrollment-reconcile-delay:PT1M}")
+    public void reconcileAll() {
+        int reconciled = ReadWriteRoutingDataSource.onPrimary(() -> reconcile(LocalDateTime.now()));
+        if (reconciled > 0) {
+            log.info("reconciled reserved seats of {} events", reconciled);
+        }
+    }
+
+    int reconcile(LocalDateTime now) {
+        LocalDateTime liveSince = now.minus(appProperties.getEnrollmentLeaseTimeout());
+        seatLeaseRepository.deleteExpired(liveSince);
+
+        PageRequest batch = PageRequest.of(0, appProperties.getEnrollmentReconcileBatchSize());
+        int reconciled = 0;
+        int after = 0;
+        List<Object[]> rows;
+        while (!(rows = eventRepository.findReservedSeatsAfter(after, batch)).isEmpty()) {
+            Map<Integer, Integer> observed = new HashMap<>();
+            for (Object[] row : rows) {
+                observed.put((Integer) row[0], (Integer) row[1]);
+            }
+            List<Integer> ids = new ArrayList<>(observed.keySet());
+
+            Map<Integer, Long> leased = toMap(seatLeaseRepository.sumLiveSeats(ids, liveSince));
+            Map<Integer, Long> enrolled = toMap(enrollmentRepository.countByEventIds(ids));
+            for (Integer id : ids) {
+                int computed = (int) (enrolled.getOrDefault(id, 0L) + leased.getOrDefault(id, 0L));
+                int reserved = observed.get(id);
+                if (computed != reserved && eventRepository.reconcileReservedSeats(id, reserved, computed) == 1) {
+                    log.debug("event {} reserved seats {} -> {}", id, reserved, computed);
+                    reconciled++;
+                }
+            }
+            after = (Integer) rows.get(rows.size() - 1)[0];
+        }
+        return reconciled;
+    }
+
+    private Map<Integer, Long> toMap(List<Object[]> rows) {
+        Map<Integer, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put((Integer) row[0], ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+}
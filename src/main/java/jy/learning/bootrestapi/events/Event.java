@@ -1,5 +1,6 @@
 package jy.learning.bootrestapi.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jy.learning.bootrestapi.accounts.Account;
 import jy.learning.bootrestapi.accounts.AccountSerializer;
@@ -11,9 +12,21 @@ import java.time.LocalDateTime;
 @Builder @AllArgsConstructor @NoArgsConstructor
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_event_begin_event_date_time_id", columnList = "beginEventDateTime, id"),
+        // 검색 조건 컬럼을 모두 담아서 id만 고르는 첫 단계가 인덱스만 읽도록 한다.
+        @Index(name = "idx_event_status_begin_event_date_time_search",
+                columnList = "eventStatus, beginEventDateTime, beginEnrollmentDateTime, free, offline, basePrice, maxPrice"),
+        @Index(name = "idx_event_status_begin_enrollment_date_time", columnList = "eventStatus, beginEnrollmentDateTime"),
+        @Index(name = "idx_event_free_begin_event_date_time", columnList = "free, beginEventDateTime"),
+        @Index(name = "idx_event_offline_begin_event_date_time", columnList = "offline, beginEventDateTime"),
+        @Index(name = "idx_event_base_price_max_price", columnList = "basePrice, maxPrice")
+})
 public class Event {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq_generator")
+    @SequenceGenerator(name = "event_seq_generator", sequenceName = "event_seq", allocationSize = 50)
     private Integer id;
     private String name;
     private String description;
@@ -25,6 +38,9 @@ public class Event {
     private int basePrice; // (optional)
     private int maxPrice; // (optional)
     private int limitOfEnrollment;
+    @JsonIgnore
+    @Column(nullable = false, updatable = false)
+    private int reservedSeats; // 등록용으로 선점된 좌석 수, 조건부 update로만 바뀐다.
     private boolean offline;
     private boolean free;
     @Builder.Default
@@ -33,6 +49,9 @@ public class Event {
     @ManyToOne
     @JsonSerialize(using = AccountSerializer.class)
     private Account manager;
+    @Version
+    @JsonIgnore
+    private Integer version;
 
     public void update() {
         this.free = this.basePrice == 0 && this.maxPrice == 0;
@@ -0,0 +1,14 @@
+package jy.learning.bootrestapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.validation.Errors;
+
+@Getter
+@AllArgsConstructor
+public class EventBatchError {
+
+    private final int index;
+
+    private final Errors errors;
+}
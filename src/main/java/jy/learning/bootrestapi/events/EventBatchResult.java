@@ -0,0 +1,29 @@
+package jy.learning.bootrestapi.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class EventBatchResult extends RepresentationModel<EventBatchResult> {
+
+    private int created;
+
+    @JsonIgnore
+    private final List<EventBatchError> errors = new ArrayList<>();
+
+    void addCreated(int count) {
+        this.created += count;
+    }
+
+    void addError(EventBatchError error) {
+        this.errors.add(error);
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -1,40 +1,77 @@
 package jy.learning.bootrestapi.events;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import jy.learning.bootrestapi.accounts.Account;
 import jy.learning.bootrestapi.accounts.CurrentUser;
+import jy.learning.bootrestapi.common.HalFormat;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 
 @Controller
-@RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
+@RequestMapping(value = "/api/events", produces = {MediaTypes.HAL_JSON_VALUE, HalFormat.CBOR_VALUE, HalFormat.SMILE_VALUE})
 @RequiredArgsConstructor
 public class EventController {
 
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int MAX_KEYSET_PAGE_SIZE = 2000;
+
+    private static final List<String> KEYSET_ORDER = Arrays.asList("beginEventDateTime", "id");
+
     private final EventRepository eventRepository;
 
-    private final ModelMapper modelMapper;
+    private final EventService eventService;
+
+    private final EventMapper eventMapper;
 
     private final EventValidator eventValidator;
 
+    private final EventRenderer eventRenderer;
+
+    private final ObjectMapper objectMapper;
+
+    private final EventMetrics eventMetrics;
+
     @PostMapping
     public ResponseEntity createEvent(
             @RequestBody @Valid EventDto eventDto,
@@ -45,15 +82,15 @@ public class EventController {
             return ResponseEntity.badRequest().body(errors);
         }
 
-        eventValidator.validate(eventDto, errors);
+        eventMetrics.validation().record(() -> eventValidator.validate(eventDto, errors));
         if(errors.hasErrors()) {
             return ResponseEntity.badRequest().body(errors);
         }
 
-        Event event = modelMapper.map(eventDto, Event.class);
+        Event event = eventMetrics.mapping().record(() -> eventMapper.toEvent(eventDto));
         event.update();
         event.setManager(account);
-        Event newEvent = this.eventRepository.save(event);
+        Event newEvent = this.eventService.save(event);
 
         WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class).slash(newEvent.getId());
         URI createdUri = selfLinkBuilder.toUri();
@@ -61,40 +98,273 @@ public class EventController {
         entityModel.add(linkTo(EventController.class).withRel("query-events"));
         entityModel.add(selfLinkBuilder.withRel("update-event"));
 
-        return ResponseEntity.created(createdUri).body(entityModel);
+        return ResponseEntity.created(createdUri)
+                .eTag(EventVersion.of(newEvent).eTag(true))
+                .body(entityModel);
     }
 
-    @GetMapping
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+    public ResponseEntity createEvents(InputStream body, @CurrentUser Account account) {
+        // JSON 배열과 NDJSON 모두 MappingIterator가 한 건씩 읽어준다.
+        EventBatchResult result;
+        try (MappingIterator<EventDto> eventDtos = this.objectMapper.readerFor(EventDto.class).readValues(body)) {
+            result = this.eventService.importEvents(eventDtos, account);
+        } catch (IOException | RuntimeJsonMappingException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            // MappingIterator는 읽다가 만난 파싱 오류(JsonParseException)를 원인으로 한 RuntimeException으로 감싼다.
+            if (e.getCause() instanceof IOException) {
+                return ResponseEntity.badRequest().build();
+            }
+            throw e;
+        }
+
+        if (result.hasErrors()) {
+            return ResponseEntity.badRequest().body(result.getErrors());
+        }
+
+        result.add(linkTo(EventController.class).withRel("query-events"));
+        result.add(Link.of("/docs/index.html#resources-events-batch").withRel("profile"));
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    @GetMapping(params = {"!q", "!fields", "!after"})
     public ResponseEntity queryEvents(
             Pageable pageable,
             PagedResourcesAssembler<Event> assembler,
-            @CurrentUser Account account
+            @CurrentUser Account account,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest
     ) {
         Page<Event> page = this.eventRepository.findAll(pageable);
+        String eTag = pageETag(page, account != null, HalFormat.negotiate(accept));
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         PagedModel<EntityModel<Event>> pagedModel = assembler.toModel(page, FactoryEntityModel::eventEntityModel);
         pagedModel.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
         if (account != null) {
             pagedModel.add(linkTo(EventController.class).withRel("create-event"));
         }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(pagedModel);
+    }
+
+    /**
+     * q, fields, after는 서로 다른 조회 방식이라 함께 쓸 수 없다. 위 매핑 어디에도 걸리지 않는 조합은 여기로 온다.
+     */
+    @GetMapping
+    public ResponseEntity queryEventsWithConflictingParams() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    @GetMapping(params = {"q", "!fields", "!after"})
+    public ResponseEntity queryEventsByText(
+            @RequestParam String q,
+            Pageable pageable,
+            PagedResourcesAssembler<Event> assembler,
+            @CurrentUser Account account
+    ) {
+        // 정렬은 항상 검색 점수 순이다.
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Event> page = this.eventService.search(q, unsorted);
+        PagedModel<EntityModel<Event>> pagedModel = assembler.toModel(page, FactoryEntityModel::eventEntityModel);
+        pagedModel.add(Link.of("/docs/index.html#resources-events-text-search").withRel("profile"));
+        if (account != null) {
+            pagedModel.add(linkTo(EventController.class).withRel("create-event"));
+        }
         return ResponseEntity.ok(pagedModel);
     }
 
+    @GetMapping(params = {"fields", "!q", "!after"})
+    public ResponseEntity queryEventFields(
+            @RequestParam String fields,
+            Pageable pageable,
+            PagedResourcesAssembler<EventFields> assembler,
+            @CurrentUser Account account
+    ) {
+        Set<String> selected;
+        try {
+            selected = EventFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Page<Map<String, Object>> rows = this.eventRepository.findAllFields(selected, pageable);
+        PagedModel<EventFields> pagedModel = assembler.toModel(rows.map(EventFields::of), eventFields -> eventFields);
+        pagedModel.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+        if (account != null) {
+            pagedModel.add(linkTo(EventController.class).withRel("create-event"));
+        }
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    private String pageETag(Page<Event> page, boolean authenticated, HalFormat format) {
+        StringBuilder fingerprint = new StringBuilder()
+                .append(page.getNumber()).append('/')
+                .append(page.getSize()).append('/')
+                .append(page.getTotalElements()).append('/')
+                .append(page.getSort()).append('/')
+                .append(authenticated).append('/')
+                .append(format);
+        page.forEach(event -> fingerprint.append('/').append(event.getId()).append(':').append(event.getVersion()));
+        return "W/\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity searchEvents(
+            EventSearchCondition condition,
+            Pageable pageable,
+            PagedResourcesAssembler<Event> assembler,
+            @CurrentUser Account account
+    ) {
+        Page<Event> page = this.eventService.findMatching(condition, pageable);
+        PagedModel<EntityModel<Event>> pagedModel = assembler.toModel(page, FactoryEntityModel::eventEntityModel);
+        pagedModel.add(Link.of("/docs/index.html#resources-events-search").withRel("profile"));
+        if (account != null) {
+            pagedModel.add(linkTo(EventController.class).withRel("create-event"));
+        }
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    @GetMapping("/open-for-enrollment")
+    public ResponseEntity queryEventsOpenForEnrollment(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            Pageable pageable,
+            PagedResourcesAssembler<Event> assembler
+    ) {
+        Page<Event> page = this.eventService.findOpenForEnrollment(at == null ? LocalDateTime.now() : at, pageable);
+        PagedModel<EntityModel<Event>> pagedModel = assembler.toModel(page, FactoryEntityModel::eventEntityModel);
+        pagedModel.add(Link.of("/docs/index.html#resources-events-open-for-enrollment").withRel("profile"));
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    @GetMapping("/running")
+    public ResponseEntity queryEventsRunning(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            Pageable pageable,
+            PagedResourcesAssembler<Event> assembler
+    ) {
+        Page<Event> page = this.eventService.findRunning(at == null ? LocalDateTime.now() : at, pageable);
+        PagedModel<EntityModel<Event>> pagedModel = assembler.toModel(page, FactoryEntityModel::eventEntityModel);
+        pagedModel.add(Link.of("/docs/index.html#resources-events-running").withRel("profile"));
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    /**
+     * 전체 이벤트를 NDJSON으로 흘려보낸다. ResourceServerConfig에서 인증된 요청만 받는다.
+     */
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEvents() {
+        StreamingResponseBody body = out -> this.eventService.exportEvents(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
+    @GetMapping(params = {"after", "!q", "!fields"})
+    public ResponseEntity queryEventsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort,
+            @CurrentUser Account account
+    ) {
+        if (!isKeysetOrder(sort)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        EventCursor cursor;
+        try {
+            cursor = EventCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_KEYSET_PAGE_SIZE);
+        // 한 건 더 읽어서 다음 페이지 존재 여부를 판단하므로 count 쿼리가 필요 없다.
+        List<Event> events = this.eventService.findKeysetPage(cursor, pageSize + 1);
+
+        boolean hasNext = events.size() > pageSize;
+        if (hasNext) {
+            events = events.subList(0, pageSize);
+        }
+
+        List<EntityModel<Event>> content = events.stream()
+                .map(FactoryEntityModel::eventEntityModel)
+                .collect(Collectors.toList());
+        CollectionModel<EntityModel<Event>> collectionModel = CollectionModel.of(content);
+        collectionModel.add(keysetLink(after, pageSize, IanaLinkRelations.SELF.value()));
+        if (hasNext) {
+            String next = EventCursor.of(events.get(events.size() - 1)).encode();
+            collectionModel.add(keysetLink(next, pageSize, IanaLinkRelations.NEXT.value()));
+        }
+        collectionModel.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+        if (account != null) {
+            collectionModel.add(linkTo(EventController.class).withRel("create-event"));
+        }
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    /**
+     * keyset 페이징은 (beginEventDateTime, id) 오름차순만 된다. 정렬을 주지 않거나 정확히
+     * sort=beginEventDateTime,asc&sort=id,asc 일 때만 받고, 일부만 주거나 순서가 다르면 무시하지 않고 거절한다.
+     */
+    private boolean isKeysetOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != KEYSET_ORDER.size()) {
+            return false;
+        }
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            if (!KEYSET_ORDER.get(i).equals(order.getProperty()) || order.isDescending() || order.isIgnoreCase()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Link keysetLink(String after, int size, String rel) {
+        String href = linkTo(EventController.class).toUriComponentsBuilder()
+                .queryParam("after", after)
+                .queryParam("size", size)
+                .toUriString();
+        return Link.of(href).withRel(rel);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity getEvent(@PathVariable Integer id,
-                                   @CurrentUser Account currentUser) {
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
+                                   @CurrentUser Account currentUser,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                   WebRequest webRequest) {
+        HalFormat format = HalFormat.negotiate(accept);
+        Integer currentUserId = currentUser == null ? null : currentUser.getId();
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            // 본문을 읽거나 직렬화하지 않고 버전만으로 304를 판단한다.
+            Optional<EventVersion> version = this.eventService.findVersionById(id);
+            if (version.isPresent()
+                    && webRequest.checkNotModified(version.get().eTag(version.get().isManagedBy(currentUserId), format))) {
+                return null;
+            }
+        }
+
+        Optional<Event> optionalEvent = this.eventService.findById(id);
         if (!optionalEvent.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
         Event event = optionalEvent.get();
-        EntityModel<Event> entityModel = FactoryEntityModel.eventEntityModel(event);
-        entityModel.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
-        if(event.getManager().equals(currentUser)) {
-            entityModel.add(linkTo(EventController.class).slash(event.getId()).withRel("update-event"));
-        }
+        EventVersion version = EventVersion.of(event);
+        boolean manager = version.isManagedBy(currentUserId);
+        byte[] body = this.eventRenderer.render(event, manager, format);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .eTag(version.eTag(manager, format))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
     }
 
     @PutMapping("/{id}")
@@ -102,7 +372,8 @@ public class EventController {
             @PathVariable Integer id,
             @RequestBody @Valid EventDto eventDto,
             Errors errors,
-            @CurrentUser Account currentUser
+            @CurrentUser Account currentUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         Optional<Event> optionalEvent = this.eventRepository.findById(id);
         if (!optionalEvent.isPresent())
@@ -110,7 +381,7 @@ public class EventController {
         else if (errors.hasErrors())
             return ResponseEntity.badRequest().build();
 
-        this.eventValidator.validate(eventDto, errors);
+        this.eventMetrics.validation().record(() -> this.eventValidator.validate(eventDto, errors));
         if (errors.hasErrors())
             return ResponseEntity.badRequest().build();
 
@@ -118,13 +389,24 @@ public class EventController {
         if(!existingEvent.getManager().equals(currentUser))
             return new ResponseEntity(HttpStatus.UNAUTHORIZED);
 
-        this.modelMapper.map(eventDto, existingEvent);
-        Event event = this.eventRepository.save(existingEvent);
+        if (ifMatch != null && !EventVersion.of(existingEvent).matches(ifMatch))
+            return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+
+        this.eventMetrics.mapping().record(() -> this.eventMapper.updateEvent(eventDto, existingEvent));
+        Event event;
+        try {
+            event = this.eventService.save(existingEvent);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            this.eventService.evict(id);
+            return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+        }
 
         EntityModel<Event> entityModel = FactoryEntityModel.eventEntityModel(event);
         entityModel.add(Link.of("/docs/index.html#resources-events-update").withRel("profile"));
 
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok()
+                .eTag(EventVersion.of(event).eTag(true))
+                .body(entityModel);
     }
 }
@@ -0,0 +1,56 @@
+package jy.learning.bootrestapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * keyset 페이징에 사용하는 커서. 마지막으로 내려준 이벤트의 (beginEventDateTime, id)를 담고
+ * 클라이언트에게는 URL-safe Base64 문자열(after 토큰)로만 노출한다. 시작 시각이 없는 이벤트는 날짜 자리를 비운다.
+ */
+@Getter
+@AllArgsConstructor
+public class EventCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime beginEventDateTime;
+
+    private final Integer id;
+
+    public static EventCursor of(Event event) {
+        return new EventCursor(event.getBeginEventDateTime(), event.getId());
+    }
+
+    /**
+     * 빈 토큰은 첫 페이지를 의미하므로 null을 돌려준다.
+     */
+    public static EventCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("malformed cursor: " + token);
+            }
+            String date = raw.substring(0, separator);
+            LocalDateTime begin = date.isEmpty() ? null : LocalDateTime.parse(date);
+            Integer id = Integer.valueOf(raw.substring(separator + 1));
+            return new EventCursor(begin, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("malformed cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = (beginEventDateTime == null ? "" : beginEventDateTime.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package jy.learning.bootrestapi.events;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * ?fields= 로 고른 필드만 담은 이벤트 표현. 목록에서는 Event와 같은 eventList로 묶인다.
+ */
+@Relation(collectionRelation = "eventList")
+public class EventFields extends RepresentationModel<EventFields> {
+
+    public static final String MANAGER = "manager";
+
+    public static final Set<String> ALLOWED = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            "id", "name", "description",
+            "beginEnrollmentDateTime", "closeEnrollmentDateTime", "beginEventDateTime", "endEventDateTime",
+            "location", "basePrice", "maxPrice", "limitOfEnrollment", "offline", "free", "eventStatus", MANAGER)));
+
+    private final Map<String, Object> fields;
+
+    private EventFields(Map<String, Object> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * 쉼표로 구분한 필드 이름을 읽는다. 허용하지 않는 이름이 있으면 IllegalArgumentException.
+     */
+    public static Set<String> parse(String fields) {
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALLOWED.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            parsed.add(name);
+        }
+        return parsed;
+    }
+
+    public static EventFields of(Map<String, Object> row) {
+        Map<String, Object> fields = new LinkedHashMap<>(row);
+        if (fields.containsKey(MANAGER)) {
+            // AccountSerializer와 같은 모양으로 내보낸다.
+            Object managerId = fields.get(MANAGER);
+            fields.put(MANAGER, managerId == null ? null : Collections.singletonMap("id", managerId));
+        }
+
+        EventFields eventFields = new EventFields(fields);
+        eventFields.add(linkTo(EventController.class).slash(row.get("id")).withSelfRel());
+        return eventFields;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+}
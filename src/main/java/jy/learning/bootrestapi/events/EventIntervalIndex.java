@@ -0,0 +1,58 @@
+package jy.learning.bootrestapi.events;
+
+import jy.learning.bootrestapi.common.IntervalTree;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 등록 기간과 진행 기간으로 "지금 등록 중인" / "지금 진행 중인" 이벤트를 찾는 메모리 색인.
+ * 색인한 이벤트의 버전을 기억해서 더 낮은 버전으로는 덮어쓰지 않는다.
+ */
+@Component
+public class EventIntervalIndex {
+
+    private final IntervalTree<LocalDateTime> enrollmentPeriods = new IntervalTree<>();
+
+    private final IntervalTree<LocalDateTime> eventPeriods = new IntervalTree<>();
+
+    private final Map<Integer, Integer> versions = new HashMap<>();
+
+    /**
+     * 두 트리를 같은 버전으로 맞춰야 하므로 쓰기는 이 객체로 직렬화한다. 읽기는 각 트리의 읽기 락만 쓴다.
+     */
+    public synchronized boolean index(Event event) {
+        Integer indexedVersion = versions.get(event.getId());
+        if (indexedVersion != null && event.getVersion() != null && indexedVersion > event.getVersion()) {
+            return false;
+        }
+
+        enrollmentPeriods.put(event.getId(), event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime());
+        eventPeriods.put(event.getId(), event.getBeginEventDateTime(), event.getEndEventDateTime());
+        if (event.getVersion() != null) {
+            versions.put(event.getId(), event.getVersion());
+        }
+        return true;
+    }
+
+    public synchronized void remove(Integer id) {
+        versions.remove(id);
+        enrollmentPeriods.remove(id);
+        eventPeriods.remove(id);
+    }
+
+    public synchronized void removeAll(Collection<Integer> ids) {
+        ids.forEach(this::remove);
+    }
+
+    public IntervalTree.Window openForEnrollmentAt(LocalDateTime at, long offset, int limit) {
+        return enrollmentPeriods.stab(at, offset, limit);
+    }
+
+    public IntervalTree.Window runningAt(LocalDateTime at, long offset, int limit) {
+        return eventPeriods.stab(at, offset, limit);
+    }
+}
@@ -0,0 +1,67 @@
+package jy.learning.bootrestapi.events;
+
+import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.common.ReadWriteRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 등록 시작 시각이 지난 PUBLISHED 이벤트를 BEGAN_ENROLLMENT로 바꾼다. 이벤트를 하나씩 읽어 저장하지 않고
+ * 인덱스로 id만 배치 크기만큼 읽어 짧은 bulk update를 반복한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventLifecycleScheduler {
+
+    private final EventRepository eventRepository;
+
+    private final EventService eventService;
+
+    private final EventRenderer eventRenderer;
+
+    private final AppProperties appProperties;
+
+    @Scheduled(fixedDelayString = "${my-app.event-lifecycle-delay:PT30S}")
+    public void beginEnrollments() {
+        int updated = advance(EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT, LocalDateTime.now());
+        if (updated > 0) {
+            log.info("{} events began enrollment", updated);
+        }
+    }
+
+    /**
+     * 고를 id도 primary에서 읽는다. 지연된 replica에서 읽으면 방금 바꾼 id를 다시 골라서 반복하게 된다.
+     */
+    int advance(EventStatus from, EventStatus to, LocalDateTime now) {
+        return ReadWriteRoutingDataSource.onPrimary(() -> advanceOnPrimary(from, to, now));
+    }
+
+    private int advanceOnPrimary(EventStatus from, EventStatus to, LocalDateTime now) {
+        Pageable batch = PageRequest.of(0, appProperties.getEventLifecycleBatchSize());
+
+        // 바뀐 이벤트는 다음 조회 조건에서 빠지므로 항상 첫 페이지를 읽는다.
+        int updated = 0;
+        List<Integer> ids;
+        while (!(ids = eventRepository.findIdsByStatusAndEnrollmentBegun(from, now, batch)).isEmpty()) {
+            int changed = eventRepository.updateStatus(ids, from, to);
+            for (Integer id : ids) {
+                eventService.evict(id);
+                eventRenderer.evict(id);
+            }
+            // 다른 인스턴스가 먼저 바꿨다. 같은 id를 계속 읽지 않고 다음 실행에 맡긴다.
+            if (changed == 0) {
+                break;
+            }
+            updated += changed;
+        }
+        return updated;
+    }
+}
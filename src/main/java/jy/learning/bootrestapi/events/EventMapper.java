@@ -0,0 +1,13 @@
+package jy.learning.bootrestapi.events;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface EventMapper {
+
+    Event toEvent(EventDto eventDto);
+
+    void updateEvent(EventDto eventDto, @MappingTarget Event event);
+}
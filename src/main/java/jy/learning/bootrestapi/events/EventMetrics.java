@@ -0,0 +1,50 @@
+package jy.learning.bootrestapi.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jy.learning.bootrestapi.common.HalFormat;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 이벤트 요청 처리 중 검증, 매핑, 직렬화에 걸린 시간. 엔드포인트 전체 지연은 http.server.requests로 본다.
+ */
+@Component
+public class EventMetrics {
+
+    private final Timer validation;
+
+    private final Timer mapping;
+
+    private final Map<HalFormat, Timer> serialization = new EnumMap<>(HalFormat.class);
+
+    private final Timer ndjsonSerialization;
+
+    public EventMetrics(MeterRegistry registry) {
+        this.validation = Timer.builder("events.validation").register(registry);
+        this.mapping = Timer.builder("events.mapping").register(registry);
+        for (HalFormat format : HalFormat.values()) {
+            this.serialization.put(format,
+                    Timer.builder("events.serialization").tag("format", format.getTag()).register(registry));
+        }
+        this.ndjsonSerialization = Timer.builder("events.serialization").tag("format", "ndjson").register(registry);
+    }
+
+    public Timer validation() {
+        return validation;
+    }
+
+    public Timer mapping() {
+        return mapping;
+    }
+
+    public Timer serialization(HalFormat format) {
+        return serialization.get(format);
+    }
+
+    public Timer ndjsonSerialization() {
+        return ndjsonSerialization;
+    }
+}
@@ -0,0 +1,22 @@
+package jy.learning.bootrestapi.events;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface EventProjectionRepository {
+
+    /**
+     * 요청한 컬럼만 select 한다. manager는 account를 join 하지 않고 외래 키만 읽는다.
+     */
+    Page<Map<String, Object>> findAllFields(Set<String> fields, Pageable pageable);
+
+    /**
+     * 조건에 맞는 이벤트 id 한 페이지만 읽는다. 검색 조건 컬럼이 모두 한 인덱스에 들어 있어서
+     * 정렬도 그 컬럼들로 하면 테이블 행을 읽지 않고 인덱스만으로 끝난다.
+     */
+    Page<Integer> findIds(Specification<Event> specification, Pageable pageable);
+}
@@ -0,0 +1,103 @@
+package jy.learning.bootrestapi.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jy.learning.bootrestapi.common.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jy.learning.bootrestapi.common.HalFormat;
+import jy.learning.bootrestapi.common.HalObjectMappers;
+import jy.learning.bootrestapi.common.LruCache;
+import jy.learning.bootrestapi.common.LruCacheMetrics;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * GET /api/events/{id} 응답 본문을 이벤트 스냅샷과 인코딩마다 한 번만 직렬화해서 byte[]로 보관한다.
+ * 요청마다 달라지는 것은 update-event 링크 유무뿐이므로 매니저용 본문을 따로 하나 더 만든다.
+ */
+@Component
+public class EventRenderer {
+
+    private final HalObjectMappers halObjectMappers;
+
+    private final LruCache<Integer, RenderedEvent> renderedEvents;
+
+    private final EventMetrics eventMetrics;
+
+    public EventRenderer(HalObjectMappers halObjectMappers,
+                         AppProperties appProperties,
+                         EventMetrics eventMetrics,
+                         MeterRegistry meterRegistry) {
+        this.halObjectMappers = halObjectMappers;
+        this.renderedEvents = new LruCache<>(appProperties.getEventCacheSize(), appProperties.getEventCacheTtl());
+        this.eventMetrics = eventMetrics;
+        new LruCacheMetrics(this.renderedEvents, "rendered-events").bindTo(meterRegistry);
+    }
+
+    public byte[] render(Event event, boolean manager, HalFormat format) {
+        String baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+        RenderedEvent rendered = renderedEvents.get(event.getId());
+        if (rendered == null || !rendered.isRenderedFrom(event, baseUri)) {
+            rendered = new RenderedEvent(event, baseUri);
+            renderedEvents.put(event.getId(), rendered);
+        }
+
+        return rendered.body(manager, format);
+    }
+
+    public void evict(Integer id) {
+        renderedEvents.evict(id);
+    }
+
+    private byte[] write(Event event, boolean manager, HalFormat format) {
+        EntityModel<Event> entityModel = FactoryEntityModel.eventEntityModel(event);
+        entityModel.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+        if (manager) {
+            entityModel.add(linkTo(EventController.class).slash(event.getId()).withRel("update-event"));
+        }
+
+        long start = System.nanoTime();
+        try {
+            return halObjectMappers.get(format).writeValueAsBytes(entityModel);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render event " + event.getId(), e);
+        } finally {
+            eventMetrics.serialization(format).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private class RenderedEvent {
+
+        private final Event event;
+
+        private final String baseUri;
+
+        // [인코딩 * 2 + 매니저 여부] 자리에 처음 요청될 때 채운다.
+        private final AtomicReferenceArray<byte[]> bodies = new AtomicReferenceArray<>(HalFormat.values().length * 2);
+
+        RenderedEvent(Event event, String baseUri) {
+            this.event = event;
+            this.baseUri = baseUri;
+        }
+
+        boolean isRenderedFrom(Event event, String baseUri) {
+            return this.event == event && this.baseUri.equals(baseUri);
+        }
+
+        byte[] body(boolean manager, HalFormat format) {
+            int slot = format.ordinal() * 2 + (manager ? 1 : 0);
+            byte[] body = bodies.get(slot);
+            if (body == null) {
+                body = write(event, manager, format);
+                bodies.set(slot, body);
+            }
+            return body;
+        }
+    }
+}
@@ -1,7 +1,110 @@
 package jy.learning.bootrestapi.events;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface EventRepository extends JpaRepository<Event, Integer> {
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event>,
+        EventProjectionRepository {
+
+    int STREAM_FETCH_SIZE = 1000;
+
+    /**
+     * 목록 조회는 manager를 조인해서 한 번에 읽는다. manager의 roles는 default_batch_fetch_size로 묶어서 읽는다.
+     */
+    @Override
+    @EntityGraph(attributePaths = "manager")
+    Page<Event> findAll(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select e from Event e")
+    Stream<Event> streamAll();
+
+    @Query("select new jy.learning.bootrestapi.events.EventVersion(e.id, e.version, m.id) " +
+            "from Event e left join e.manager m where e.id = :id")
+    Optional<EventVersion> findVersionById(@Param("id") Integer id);
+
+    @Query("select e from Event e where e.beginEventDateTime is null and e.id > :id order by e.id asc")
+    List<Event> findUndatedKeysetPageAfter(@Param("id") Integer id, Pageable pageable);
+
+    @Query("select e from Event e where e.beginEventDateTime is not null " +
+            "order by e.beginEventDateTime asc, e.id asc")
+    List<Event> findFirstKeysetPage(Pageable pageable);
+
+    @Query("select e from Event e " +
+            "where e.beginEventDateTime > :beginEventDateTime " +
+            "or (e.beginEventDateTime = :beginEventDateTime and e.id > :id) " +
+            "order by e.beginEventDateTime asc, e.id asc")
+    List<Event> findKeysetPageAfter(@Param("beginEventDateTime") LocalDateTime beginEventDateTime,
+                                    @Param("id") Integer id,
+                                    Pageable pageable);
+
+    /**
+     * (eventStatus, beginEnrollmentDateTime) 인덱스 순서대로 등록 시작 시각이 지난 이벤트 id를 읽는다.
+     */
+    @Query("select e.id from Event e " +
+            "where e.eventStatus = :status and e.beginEnrollmentDateTime <= :now " +
+            "order by e.beginEnrollmentDateTime asc, e.id asc")
+    List<Integer> findIdsByStatusAndEnrollmentBegun(@Param("status") EventStatus status,
+                                                    @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Event e set e.eventStatus = :to, e.version = e.version + 1 " +
+            "where e.id in :ids and e.eventStatus = :from")
+    int updateStatus(@Param("ids") List<Integer> ids,
+                     @Param("from") EventStatus from,
+                     @Param("to") EventStatus to);
+
+    @Query("select e.limitOfEnrollment - e.reservedSeats from Event e where e.id = :id")
+    Optional<Integer> findRemainingSeats(@Param("id") Integer id);
+
+    /**
+     * 정원을 넘지 않을 때만 좌석을 선점한다. 선점에 성공하면 1을 돌려준다.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.reservedSeats = e.reservedSeats + :seats " +
+            "where e.id = :id and e.reservedSeats + :seats <= e.limitOfEnrollment")
+    int reserveSeats(@Param("id") Integer id, @Param("seats") int seats);
+
+    /**
+     * 선점 좌석이 있는 이벤트의 [id, reservedSeats]를 id 순으로 읽는다. 대사(reconciliation) 배치용.
+     */
+    @Query("select e.id, e.reservedSeats from Event e where e.id > :after and e.reservedSeats > 0 order by e.id asc")
+    List<Object[]> findReservedSeatsAfter(@Param("after") Integer after, Pageable pageable);
+
+    /**
+     * 읽은 뒤로 reservedSeats가 바뀌지 않았을 때만 다시 계산한 값으로 바꾼다.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.reservedSeats = :computed where e.id = :id and e.reservedSeats = :observed")
+    int reconcileReservedSeats(@Param("id") Integer id, @Param("observed") int observed, @Param("computed") int computed);
+
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.reservedSeats = e.reservedSeats - :seats " +
+            "where e.id = :id and e.reservedSeats >= :seats")
+    int releaseSeats(@Param("id") Integer id, @Param("seats") int seats);
 }
@@ -0,0 +1,41 @@
+package jy.learning.bootrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * GET /api/events/search 의 필터 파라미터. 값이 없는 조건은 무시한다.
+ */
+@Getter
+@Setter
+public class EventSearchCondition {
+
+    private EventStatus eventStatus;
+
+    private Boolean free;
+
+    private Boolean offline;
+
+    private Integer basePriceFrom;
+
+    private Integer basePriceTo;
+
+    private Integer maxPriceFrom;
+
+    private Integer maxPriceTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEventFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEventTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEnrollmentFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEnrollmentTo;
+}
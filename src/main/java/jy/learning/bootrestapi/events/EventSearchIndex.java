@@ -0,0 +1,231 @@
+package jy.learning.bootrestapi.events;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 이벤트 이름, 설명, 장소에 대한 메모리 역색인. 검색 결과는 BM25 점수 순으로 정렬한다.
+ * 이름에 나온 단어는 NAME_WEIGHT 만큼 더 자주 나온 것으로 센다.
+ * 색인한 이벤트의 버전을 기억해서 더 낮은 버전으로는 덮어쓰지 않는다.
+ */
+@Component
+public class EventSearchIndex {
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final int NAME_WEIGHT = 3;
+
+    /**
+     * 점수가 높은 순, 같으면 id 순.
+     */
+    private static final Comparator<Map.Entry<Integer, Double>> RANKING =
+            Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+
+    private final Map<Integer, Map<String, Integer>> documents = new HashMap<>();
+
+    private final Map<Integer, Integer> lengths = new HashMap<>();
+
+    private final Map<Integer, Integer> versions = new HashMap<>();
+
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @return 이미 더 높은 버전이 색인되어 있어서 건너뛰었으면 false
+     */
+    public boolean index(Event event) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String term : tokenize(event.getName())) {
+            termFrequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(event.getDescription())) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        for (String term : tokenize(event.getLocation())) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer indexedVersion = versions.get(event.getId());
+            if (indexedVersion != null && event.getVersion() != null && indexedVersion > event.getVersion()) {
+                return false;
+            }
+
+            removeDocument(event.getId());
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(event.getId(), entry.getValue());
+                length += entry.getValue();
+            }
+            documents.put(event.getId(), termFrequencies);
+            lengths.put(event.getId(), length);
+            if (event.getVersion() != null) {
+                versions.put(event.getId(), event.getVersion());
+            }
+            totalLength += length;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<Integer> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            versions.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeDocument(Integer id) {
+        versions.remove(id);
+        Map<String, Integer> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+
+        totalLength -= lengths.remove(id);
+        previous.forEach((term, frequency) -> {
+            Map<Integer, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+    }
+
+    /**
+     * 질의어를 하나라도 포함하는 이벤트 id를 점수가 높은 순(같으면 id 순)으로 한 페이지 돌려준다.
+     * 전체를 정렬하지 않고 offset + size 개만 담는 min-heap으로 상위 항목을 고른다.
+     */
+    public Page<Integer> search(String query, Pageable pageable) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        Map<Integer, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0 || terms.isEmpty()) {
+                return new PageImpl<>(Collections.emptyList(), pageable, 0);
+            }
+
+            double averageLength = (double) totalLength / documentCount;
+            for (String term : terms) {
+                Map<Integer, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, frequency) -> {
+                    double norm = K1 * (1 - B + B * lengths.get(id) / averageLength);
+                    double score = idf * frequency * (K1 + 1) / (frequency + norm);
+                    scores.merge(id, score, Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long wanted = pageable.getOffset() + pageable.getPageSize();
+        if (pageable.getOffset() >= scores.size()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, scores.size());
+        }
+
+        int top = (int) Math.min(wanted, scores.size());
+        // 머리에 순위가 가장 낮은 항목이 오도록 순서를 뒤집는다.
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(top + 1, RANKING.reversed());
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > top) {
+                heap.poll();
+            }
+        }
+
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(RANKING);
+        int from = (int) pageable.getOffset();
+        List<Integer> ids = new ArrayList<>(ranked.size() - from);
+        for (Map.Entry<Integer, Double> entry : ranked.subList(from, ranked.size())) {
+            ids.add(entry.getKey());
+        }
+        return new PageImpl<>(ids, pageable, scores.size());
+    }
+
+    /**
+     * 글자나 숫자가 아닌 문자로 나누고 소문자로 바꾼다. 한글은 어절 단위로 색인된다.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
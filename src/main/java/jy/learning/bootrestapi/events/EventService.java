@@ -0,0 +1,351 @@
+package jy.learning.bootrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jy.learning.bootrestapi.accounts.Account;
+import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.common.IntervalTree;
+import jy.learning.bootrestapi.common.LruCache;
+import jy.learning.bootrestapi.common.LruCacheMetrics;
+import jy.learning.bootrestapi.common.ReadWriteRoutingDataSource;
+import jy.learning.bootrestapi.common.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class EventService {
+
+    private static final int MAX_BATCH_ERRORS = 100;
+
+    /**
+     * 캐시에는 버전이 더 높은 이벤트만 남긴다.
+     */
+    private static final Comparator<Event> NEWER_VERSION_LAST =
+            Comparator.comparing(Event::getVersion, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final EventRepository eventRepository;
+
+    private final EntityManager entityManager;
+
+    private final EventMapper eventMapper;
+
+    private final EventValidator eventValidator;
+
+    private final SpringValidatorAdapter beanValidator;
+
+    private final ObjectWriter eventWriter;
+
+    private final int jdbcBatchSize;
+
+    private final LruCache<Integer, Event> eventCache;
+
+    private final SingleFlight<Integer, Optional<Event>> eventLoads;
+
+    private final EventSearchIndex searchIndex;
+
+    private final EventIntervalIndex intervalIndex;
+
+    private final EventMetrics eventMetrics;
+
+    public EventService(EventRepository eventRepository,
+                        EntityManager entityManager,
+                        EventMapper eventMapper,
+                        EventValidator eventValidator,
+                        Validator validator,
+                        ObjectMapper objectMapper,
+                        AppProperties appProperties,
+                        EventSearchIndex searchIndex,
+                        EventIntervalIndex intervalIndex,
+                        EventMetrics eventMetrics,
+                        MeterRegistry meterRegistry,
+                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize) {
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.eventMapper = eventMapper;
+        this.eventValidator = eventValidator;
+        this.beanValidator = new SpringValidatorAdapter(validator);
+        this.eventWriter = objectMapper.writerFor(Event.class);
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.eventCache = new LruCache<>(appProperties.getEventCacheSize(), appProperties.getEventCacheTtl());
+        this.searchIndex = searchIndex;
+        this.intervalIndex = intervalIndex;
+        this.eventMetrics = eventMetrics;
+        this.eventLoads = new SingleFlight<>("events", appProperties.getEventLoadTimeout());
+        new LruCacheMetrics(this.eventCache, "events").bindTo(meterRegistry);
+        this.eventLoads.bindTo(meterRegistry);
+    }
+
+    public Optional<Event> findById(Integer id) {
+        Event cached = eventCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // 캐시가 비었을 때 같은 이벤트를 동시에 읽는 요청들은 DB 조회 한 번을 나눠 갖는다.
+        // 캐시에 넣을 값은 primary에서 읽는다. 방금 쓰고 evict한 이벤트를 지연된 replica에서 읽어
+        // TTL 동안 모든 사용자에게 예전 값을 내주지 않기 위해서다.
+        return eventLoads.load(id, () -> {
+            Optional<Event> loaded = ReadWriteRoutingDataSource.onPrimary(() -> eventRepository.findById(id));
+            loaded.ifPresent(event -> eventCache.putIfNewer(id, event, NEWER_VERSION_LAST));
+            return loaded;
+        });
+    }
+
+    public Optional<EventVersion> findVersionById(Integer id) {
+        Event cached = eventCache.get(id);
+        if (cached != null) {
+            return Optional.of(EventVersion.of(cached));
+        }
+
+        return eventRepository.findVersionById(id);
+    }
+
+    public Event save(Event event) {
+        Event saved = eventRepository.save(event);
+        eventCache.putIfNewer(saved.getId(), saved, NEWER_VERSION_LAST);
+        index(saved);
+        return saved;
+    }
+
+    /**
+     * 검색 색인에서 id 한 페이지를 고른 뒤 그 id들만 읽어 점수 순서대로 돌려준다.
+     */
+    public Page<Event> search(String query, Pageable pageable) {
+        return loadInOrder(searchIndex.search(query, pageable));
+    }
+
+    /**
+     * at 시점에 등록 기간 중인 이벤트를 등록 시작 시각 순으로 돌려준다.
+     */
+    public Page<Event> findOpenForEnrollment(LocalDateTime at, Pageable pageable) {
+        return loadInOrder(page(intervalIndex.openForEnrollmentAt(at, pageable.getOffset(), pageable.getPageSize()), pageable));
+    }
+
+    /**
+     * keyset 페이징으로 cursor 다음 이벤트를 limit개까지 돌려준다. 시작 시각이 없는 이벤트를 id 순으로
+     * 먼저 내주고 이어서 (beginEventDateTime, id) 순으로 내준다. 어느 구간이든 (beginEventDateTime, id)
+     * 인덱스를 그대로 타고, NULL 정렬 위치가 DB마다 달라도 순서가 같다.
+     */
+    public List<Event> findKeysetPage(EventCursor cursor, int limit) {
+        if (cursor != null && cursor.getBeginEventDateTime() != null) {
+            return eventRepository.findKeysetPageAfter(cursor.getBeginEventDateTime(), cursor.getId(),
+                    PageRequest.of(0, limit));
+        }
+
+        Integer afterId = cursor == null ? Integer.MIN_VALUE : cursor.getId();
+        List<Event> events = new ArrayList<>(eventRepository.findUndatedKeysetPageAfter(afterId, PageRequest.of(0, limit)));
+        if (events.size() < limit) {
+            events.addAll(eventRepository.findFirstKeysetPage(PageRequest.of(0, limit - events.size())));
+        }
+        return events;
+    }
+
+    /**
+     * 먼저 조건에 맞는 id 한 페이지를 인덱스에서 고르고, 그 id들만 행으로 읽어 같은 순서로 돌려준다.
+     */
+    public Page<Event> findMatching(EventSearchCondition condition, Pageable pageable) {
+        return loadInOrder(eventRepository.findIds(EventSpecifications.matching(condition), pageable));
+    }
+
+    /**
+     * at 시점에 진행 중인 이벤트를 시작 시각 순으로 돌려준다.
+     */
+    public Page<Event> findRunning(LocalDateTime at, Pageable pageable) {
+        return loadInOrder(page(intervalIndex.runningAt(at, pageable.getOffset(), pageable.getPageSize()), pageable));
+    }
+
+    private Page<Integer> page(IntervalTree.Window window, Pageable pageable) {
+        return new PageImpl<>(window.getIds(), pageable, window.getTotal());
+    }
+
+    private Page<Event> loadInOrder(Page<Integer> ids) {
+        if (!ids.hasContent()) {
+            return new PageImpl<>(new ArrayList<>(), ids.getPageable(), ids.getTotalElements());
+        }
+
+        Map<Integer, Event> loaded = eventRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        List<Event> events = new ArrayList<>(loaded.size());
+        for (Integer id : ids.getContent()) {
+            Event event = loaded.get(id);
+            if (event == null) {
+                // 색인을 거치지 않고 지워진 이벤트
+                unindex(Collections.singletonList(id));
+                continue;
+            }
+            events.add(event);
+        }
+        return new PageImpl<>(events, ids.getPageable(), ids.getTotalElements());
+    }
+
+    private void index(Event event) {
+        searchIndex.index(event);
+        intervalIndex.index(event);
+    }
+
+    private void unindex(Collection<Integer> ids) {
+        searchIndex.removeAll(ids);
+        intervalIndex.removeAll(ids);
+    }
+
+    /**
+     * 기동이 끝나면 전체 이벤트를 스트림으로 읽어 검색 색인과 기간 색인을 채운다.
+     * 읽는 동안 save나 importEvents가 같은 이벤트를 더 높은 버전으로 색인했으면 색인이 그 행을 건너뛴다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndexes() {
+        long count = 0;
+        try (Stream<Event> events = eventRepository.streamAll()) {
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                index(iterator.next());
+                if (++count % EventRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * 입력을 하나씩 읽으면서 검증하고 jdbc batch 크기 단위로 flush/clear 한다.
+     * 하나라도 검증에 실패하면 전체를 롤백하고 항목별 오류만 돌려준다.
+     */
+    @Transactional
+    public EventBatchResult importEvents(Iterator<EventDto> eventDtos, Account manager) {
+        EventBatchResult result = new EventBatchResult();
+        List<Event> chunk = new ArrayList<>(jdbcBatchSize);
+        List<Integer> indexedIds = new ArrayList<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    unindex(indexedIds);
+                }
+            }
+        });
+
+        for (int index = 0; eventDtos.hasNext(); index++) {
+            EventDto eventDto = eventDtos.next();
+            Errors errors = validate(eventDto, index);
+            if (errors.hasErrors()) {
+                result.addError(new EventBatchError(index, errors));
+                if (result.getErrors().size() >= MAX_BATCH_ERRORS) {
+                    break;
+                }
+                continue;
+            }
+            if (result.hasErrors()) {
+                continue;
+            }
+
+            Event event = eventMetrics.mapping().record(() -> eventMapper.toEvent(eventDto));
+            event.update();
+            event.setManager(manager);
+            chunk.add(event);
+            if (chunk.size() == jdbcBatchSize) {
+                flush(chunk, result, indexedIds);
+            }
+        }
+
+        if (result.hasErrors()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return result;
+        }
+
+        flush(chunk, result, indexedIds);
+        return result;
+    }
+
+    private Errors validate(EventDto eventDto, int index) {
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto[" + index + "]");
+        eventMetrics.validation().record(() -> {
+            beanValidator.validate(eventDto, errors);
+            if (!errors.hasErrors()) {
+                eventValidator.validate(eventDto, errors);
+            }
+        });
+        return errors;
+    }
+
+    private void flush(List<Event> chunk, EventBatchResult result, List<Integer> indexedIds) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        eventRepository.saveAll(chunk);
+        entityManager.flush();
+        for (Event event : chunk) {
+            index(event);
+            indexedIds.add(event.getId());
+        }
+        entityManager.clear();
+        result.addCreated(chunk.size());
+        chunk.clear();
+    }
+
+    /**
+     * 전체 이벤트를 한 줄에 하나씩 JSON으로 내보낸다. 커서로 읽은 엔티티가 영속성 컨텍스트에
+     * 쌓이지 않도록 fetch size 단위로 clear 한다.
+     */
+    @Transactional(readOnly = true)
+    public long exportEvents(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Event> events = eventRepository.streamAll()) {
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                long start = System.nanoTime();
+                byte[] line = eventWriter.writeValueAsBytes(iterator.next());
+                eventMetrics.ndjsonSerialization().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                out.write(line);
+                out.write('\n');
+                if (++count % EventRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    public void evict(Integer id) {
+        eventCache.evict(id);
+    }
+
+    public LruCache<Integer, Event> getEventCache() {
+        return eventCache;
+    }
+}
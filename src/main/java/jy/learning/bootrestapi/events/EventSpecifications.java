@@ -0,0 +1,38 @@
+package jy.learning.bootrestapi.events;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public class EventSpecifications {
+
+    public static Specification<Event> matching(EventSearchCondition condition) {
+        return Specification.where(equalTo("eventStatus", condition.getEventStatus()))
+                .and(equalTo("free", condition.getFree()))
+                .and(equalTo("offline", condition.getOffline()))
+                .and(between("basePrice", condition.getBasePriceFrom(), condition.getBasePriceTo()))
+                .and(between("maxPrice", condition.getMaxPriceFrom(), condition.getMaxPriceTo()))
+                .and(between("beginEventDateTime", condition.getBeginEventFrom(), condition.getBeginEventTo()))
+                .and(between("beginEnrollmentDateTime", condition.getBeginEnrollmentFrom(), condition.getBeginEnrollmentTo()));
+    }
+
+    private static Specification<Event> equalTo(String attribute, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get(attribute), value);
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Event> between(String attribute, T from, T to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, builder) -> {
+            if (from == null) {
+                return builder.lessThanOrEqualTo(root.get(attribute), to);
+            }
+            if (to == null) {
+                return builder.greaterThanOrEqualTo(root.get(attribute), from);
+            }
+            return builder.between(root.get(attribute), from, to);
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package jy.learning.bootrestapi.events;
+
+import jy.learning.bootrestapi.common.HalFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * 이벤트 본문을 읽지 않고도 ETag를 계산할 수 있도록 id, version, managerId만 담는다.
+ * 매니저에게는 update-event 링크가 붙은 다른 본문이 나가므로 ETag도 구분한다.
+ */
+@Getter
+@AllArgsConstructor
+public class EventVersion {
+
+    private final Integer id;
+
+    private final Integer version;
+
+    private final Integer managerId;
+
+    public static EventVersion of(Event event) {
+        Integer managerId = event.getManager() == null ? null : event.getManager().getId();
+        return new EventVersion(event.getId(), event.getVersion(), managerId);
+    }
+
+    public boolean isManagedBy(Integer accountId) {
+        return managerId != null && managerId.equals(accountId);
+    }
+
+    public String eTag(boolean manager) {
+        return eTag(manager, HalFormat.HAL_JSON);
+    }
+
+    public String eTag(boolean manager, HalFormat format) {
+        return "\"" + id + "-" + version + (manager ? "-m" : "") + format.getETagSuffix() + "\"";
+    }
+
+    /**
+     * If-Match 헤더는 strong 비교만 허용한다. 매니저/비매니저, 인코딩에 상관없이 어느 표현의 ETag든 같은 버전이면 일치로 본다.
+     */
+    public boolean matches(String ifMatch) {
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> "*".equals(tag) || Arrays.stream(HalFormat.values())
+                        .anyMatch(format -> tag.equals(eTag(false, format)) || tag.equals(eTag(true, format))));
+    }
+}
@@ -0,0 +1,47 @@
+package jy.learning.bootrestapi.tokens;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * JdbcTokenStore가 사용하는 oauth_access_token 테이블. 스키마와 인덱스를 JPA DDL로 관리하기 위한 매핑이고
+ * 읽기/쓰기는 CachingJdbcTokenStore가 JDBC로 한다.
+ */
+@Entity
+@Table(name = "oauth_access_token", indexes = {
+        @Index(name = "idx_oauth_access_token_token_id", columnList = "tokenId"),
+        @Index(name = "idx_oauth_access_token_refresh_token", columnList = "refreshToken"),
+        @Index(name = "idx_oauth_access_token_client_user", columnList = "clientId, userName"),
+        @Index(name = "idx_oauth_access_token_expiration", columnList = "expiration")
+})
+@Getter
+@NoArgsConstructor
+public class AccessTokenRecord {
+
+    @Id
+    @Column(length = 256)
+    private String authenticationId;
+
+    @Column(length = 256)
+    private String tokenId;
+
+    @Lob
+    private byte[] token;
+
+    @Column(length = 256)
+    private String userName;
+
+    @Column(length = 256)
+    private String clientId;
+
+    @Lob
+    private byte[] authentication;
+
+    @Column(length = 256)
+    private String refreshToken;
+
+    private LocalDateTime expiration;
+}
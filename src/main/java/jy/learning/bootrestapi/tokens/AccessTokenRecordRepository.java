@@ -0,0 +1,22 @@
+package jy.learning.bootrestapi.tokens;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AccessTokenRecordRepository extends JpaRepository<AccessTokenRecord, String> {
+
+    @Query("select t.authenticationId from AccessTokenRecord t where t.expiration < :now")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AccessTokenRecord t where t.authenticationId in :ids")
+    int deleteByIds(@Param("ids") List<String> ids);
+}
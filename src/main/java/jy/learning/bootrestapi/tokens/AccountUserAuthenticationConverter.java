@@ -0,0 +1,75 @@
+package jy.learning.bootrestapi.tokens;
+
+import jy.learning.bootrestapi.accounts.Account;
+import jy.learning.bootrestapi.accounts.AccountAdapter;
+import jy.learning.bootrestapi.accounts.AccountRole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.provider.token.DefaultUserAuthenticationConverter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 토큰에 account id, email, 권한을 넣고 검증할 때는 DB 조회 없이 claim만으로 AccountAdapter를 다시 만든다.
+ * 그래서 @CurrentUser는 JWT 모드에서도 같은 Account를 받는다.
+ */
+public class AccountUserAuthenticationConverter extends DefaultUserAuthenticationConverter {
+
+    public static final String ACCOUNT_ID = "account_id";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Override
+    public Map<String, ?> convertUserAuthentication(Authentication authentication) {
+        Map<String, Object> response = new LinkedHashMap<>(super.convertUserAuthentication(authentication));
+        if (authentication.getPrincipal() instanceof AccountAdapter) {
+            Account account = ((AccountAdapter) authentication.getPrincipal()).getAccount();
+            response.put(ACCOUNT_ID, account.getId());
+        }
+        return response;
+    }
+
+    @Override
+    public Authentication extractAuthentication(Map<String, ?> map) {
+        if (!map.containsKey(USERNAME) || !map.containsKey(ACCOUNT_ID)) {
+            return super.extractAuthentication(map);
+        }
+
+        Collection<? extends GrantedAuthority> authorities = authorities(map.get(AUTHORITIES));
+        Account account = Account.builder()
+                .id(((Number) map.get(ACCOUNT_ID)).intValue())
+                .email((String) map.get(USERNAME))
+                .password("") // 토큰에는 비밀번호가 없다. User는 null만 허용하지 않는다.
+                .roles(roles(authorities))
+                .build();
+
+        return new UsernamePasswordAuthenticationToken(new AccountAdapter(account), "N/A", authorities);
+    }
+
+    private Collection<? extends GrantedAuthority> authorities(Object authorities) {
+        if (authorities instanceof String) {
+            return AuthorityUtils.commaSeparatedStringToAuthorityList((String) authorities);
+        }
+        if (authorities instanceof Collection) {
+            return AuthorityUtils.createAuthorityList(((Collection<?>) authorities).stream()
+                    .map(Object::toString)
+                    .toArray(String[]::new));
+        }
+        return Collections.emptyList();
+    }
+
+    private Set<AccountRole> roles(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> AccountRole.valueOf(authority.substring(ROLE_PREFIX.length())))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,118 @@
+package jy.learning.bootrestapi.tokens;
+
+import jy.learning.bootrestapi.common.LruCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * DB에 토큰을 저장하고 조회 결과는 짧은 TTL의 near-cache에 둔다.
+ * 만료 시각을 별도 컬럼에 기록해서 TokenPurgeScheduler가 인덱스를 타고 만료 토큰을 지울 수 있게 한다.
+ */
+public class CachingJdbcTokenStore extends JdbcTokenStore {
+
+    private static final String UPDATE_ACCESS_TOKEN_EXPIRATION_SQL =
+            "update oauth_access_token set expiration = ? where token_id = ?";
+
+    private static final String UPDATE_REFRESH_TOKEN_EXPIRATION_SQL =
+            "update oauth_refresh_token set expiration = ? where token_id = ?";
+
+    private static final String SELECT_ACCESS_TOKEN_IDS_FROM_REFRESH_TOKEN_SQL =
+            "select token_id from oauth_access_token where refresh_token = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LruCache<String, OAuth2AccessToken> accessTokens;
+
+    private final LruCache<String, OAuth2Authentication> authentications;
+
+    public CachingJdbcTokenStore(DataSource dataSource, int nearCacheSize, Duration nearCacheTtl) {
+        super(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.accessTokens = new LruCache<>(nearCacheSize, nearCacheTtl);
+        this.authentications = new LruCache<>(nearCacheSize, nearCacheTtl);
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        super.storeAccessToken(token, authentication);
+        updateExpiration(UPDATE_ACCESS_TOKEN_EXPIRATION_SQL, token.getExpiration(), token.getValue());
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        super.storeRefreshToken(refreshToken, authentication);
+        if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+            Date expiration = ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration();
+            updateExpiration(UPDATE_REFRESH_TOKEN_EXPIRATION_SQL, expiration, refreshToken.getValue());
+        }
+    }
+
+    private void updateExpiration(String sql, Date expiration, String tokenValue) {
+        if (expiration != null) {
+            jdbcTemplate.update(sql, new Timestamp(expiration.getTime()), extractTokenKey(tokenValue));
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        String key = extractTokenKey(tokenValue);
+        OAuth2AccessToken cached = accessTokens.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        OAuth2AccessToken accessToken = super.readAccessToken(tokenValue);
+        if (accessToken != null) {
+            accessTokens.put(key, accessToken);
+        }
+        return accessToken;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        String key = extractTokenKey(token);
+        OAuth2Authentication cached = authentications.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        OAuth2Authentication authentication = super.readAuthentication(token);
+        if (authentication != null) {
+            authentications.put(key, authentication);
+        }
+        return authentication;
+    }
+
+    @Override
+    public void removeAccessToken(String tokenValue) {
+        evict(extractTokenKey(tokenValue));
+        super.removeAccessToken(tokenValue);
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(String refreshToken) {
+        List<String> tokenIds = jdbcTemplate.queryForList(
+                SELECT_ACCESS_TOKEN_IDS_FROM_REFRESH_TOKEN_SQL, String.class, extractTokenKey(refreshToken));
+        tokenIds.forEach(this::evict);
+        super.removeAccessTokenUsingRefreshToken(refreshToken);
+    }
+
+    private void evict(String tokenId) {
+        accessTokens.evict(tokenId);
+        authentications.evict(tokenId);
+    }
+
+    public LruCache<String, OAuth2AccessToken> getAccessTokenCache() {
+        return accessTokens;
+    }
+}
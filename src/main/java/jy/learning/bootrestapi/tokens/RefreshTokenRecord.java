@@ -0,0 +1,31 @@
+package jy.learning.bootrestapi.tokens;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * JdbcTokenStore가 사용하는 oauth_refresh_token 테이블.
+ */
+@Entity
+@Table(name = "oauth_refresh_token", indexes = {
+        @Index(name = "idx_oauth_refresh_token_expiration", columnList = "expiration")
+})
+@Getter
+@NoArgsConstructor
+public class RefreshTokenRecord {
+
+    @Id
+    @Column(length = 256)
+    private String tokenId;
+
+    @Lob
+    private byte[] token;
+
+    @Lob
+    private byte[] authentication;
+
+    private LocalDateTime expiration;
+}
@@ -0,0 +1,22 @@
+package jy.learning.bootrestapi.tokens;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RefreshTokenRecordRepository extends JpaRepository<RefreshTokenRecord, String> {
+
+    @Query("select t.tokenId from RefreshTokenRecord t where t.expiration < :now")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshTokenRecord t where t.tokenId in :ids")
+    int deleteByIds(@Param("ids") List<String> ids);
+}
@@ -0,0 +1,7 @@
+package jy.learning.bootrestapi.tokens;
+
+public enum TokenFormat {
+    OPAQUE,
+
+    JWT;
+}
@@ -0,0 +1,62 @@
+package jy.learning.bootrestapi.tokens;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jy.learning.bootrestapi.common.LruCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * 토큰 발급은 TokenEnhancer로, 리소스 서버의 토큰 검증은 인증 이벤트로 센다.
+ * 토큰 형식(opaque, jwt)과 상관없이 같은 지표가 나온다.
+ */
+@Component
+public class TokenMetrics implements TokenEnhancer {
+
+    private final MeterRegistry registry;
+
+    private final Counter verified;
+
+    private final Counter rejected;
+
+    public TokenMetrics(MeterRegistry registry, TokenStore tokenStore) {
+        this.registry = registry;
+        this.verified = Counter.builder("oauth.tokens.verified").tag("result", "success").register(registry);
+        this.rejected = Counter.builder("oauth.tokens.verified").tag("result", "failure").register(registry);
+        if (tokenStore instanceof CachingJdbcTokenStore) {
+            new LruCacheMetrics(((CachingJdbcTokenStore) tokenStore).getAccessTokenCache(), "access-tokens")
+                    .bindTo(registry);
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken enhance(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        registry.counter("oauth.tokens.issued", "grant_type", authentication.getOAuth2Request().getGrantType())
+                .increment();
+        return accessToken;
+    }
+
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        if (event.getAuthentication() instanceof OAuth2Authentication) {
+            verified.increment();
+        }
+    }
+
+    /**
+     * OAuth2AuthenticationProcessingFilter는 토큰 검증 실패를 PreAuthenticatedAuthenticationToken으로 알린다.
+     */
+    @EventListener
+    public void onAuthenticationFailure(AbstractAuthenticationFailureEvent event) {
+        if (event.getAuthentication() instanceof PreAuthenticatedAuthenticationToken) {
+            rejected.increment();
+        }
+    }
+}
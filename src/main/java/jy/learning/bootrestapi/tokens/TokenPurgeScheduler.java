@@ -0,0 +1,49 @@
+package jy.learning.bootrestapi.tokens;
+
+import jy.learning.bootrestapi.common.AppProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 만료된 토큰을 배치 단위로 지운다. 한 번에 큰 delete를 날리지 않고 짧은 트랜잭션을 반복해서
+ * 토큰 발급/조회와 락 경합이 생기지 않게 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenPurgeScheduler {
+
+    private final AccessTokenRecordRepository accessTokenRecordRepository;
+
+    private final RefreshTokenRecordRepository refreshTokenRecordRepository;
+
+    private final AppProperties appProperties;
+
+    @Scheduled(fixedDelayString = "${my-app.token-purge-delay:PT1M}")
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable batch = PageRequest.of(0, appProperties.getTokenPurgeBatchSize());
+
+        int accessTokens = 0;
+        List<String> ids;
+        while (!(ids = accessTokenRecordRepository.findExpiredIds(now, batch)).isEmpty()) {
+            accessTokens += accessTokenRecordRepository.deleteByIds(ids);
+        }
+
+        int refreshTokens = 0;
+        while (!(ids = refreshTokenRecordRepository.findExpiredIds(now, batch)).isEmpty()) {
+            refreshTokens += refreshTokenRecordRepository.deleteByIds(ids);
+        }
+
+        if (accessTokens > 0 || refreshTokens > 0) {
+            log.info("purged {} access tokens and {} refresh tokens", accessTokens, refreshTokens);
+        }
+    }
+}
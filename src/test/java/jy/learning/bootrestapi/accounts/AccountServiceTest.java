@@ -70,4 +70,26 @@ public class AccountServiceTest {
             accountService.loadUserByUsername(username);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void loadUserByUsernameFromCache() {
+        //given
+        String username = "cached@email.com";
+        Account account = Account.builder()
+                .email(username)
+                .password("1234")
+                .roles(AccountRole.makeSetRoles(AccountRole.USER))
+                .build();
+        this.accountService.saveAccount(account);
+        UserDetails first = accountService.loadUserByUsername(username);
+        long hits = accountService.getAccountCache().getHitCount();
+
+        //when
+        UserDetails second = accountService.loadUserByUsername(username);
+
+        //then
+        assertThat(accountService.getAccountCache().getHitCount()).isEqualTo(hits + 1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isNotNull();
+    }
+}
@@ -0,0 +1,88 @@
+package jy.learning.bootrestapi.accounts;
+
+import jy.learning.bootrestapi.common.TestDescription;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    @TestDescription("해싱 대기열이 가득 차면 바로 거절하는 테스트")
+    public void rejectWhenQueueIsFull() throws Exception {
+        //given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                new BlockingPasswordEncoder(started, release), 1, 1, Duration.ofSeconds(5), false);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (encoder.getQueueDepth() < 1) {
+            Thread.sleep(10);
+        }
+
+        //when & then
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("third"));
+        assertThat(encoder.getRejectedCount()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(encoder.getHashCount()).isEqualTo(2);
+        encoder.destroy();
+    }
+
+    @Test
+    @TestDescription("rehash 옵션이 꺼져 있으면 upgradeEncoding이 항상 false인 테스트")
+    public void upgradeEncodingOnlyWhenRehashEnabled() {
+        CountDownLatch done = new CountDownLatch(0);
+        PasswordEncoder delegate = new BlockingPasswordEncoder(done, done);
+
+        assertThat(new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(1), false)
+                .upgradeEncoding("encoded")).isFalse();
+        assertThat(new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(1), true)
+                .upgradeEncoding("encoded")).isTrue();
+    }
+
+    private static class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch release;
+
+        BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package jy.learning.bootrestapi.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @TestDescription("한도만큼 실행 중이면 더 받지 않는 테스트")
+    public void rejectsOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @TestDescription("지연이 늘면 한도를 줄이고 다시 빨라지면 늘리는 테스트")
+    public void adaptsToLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 20);
+        sample(limiter, 10 * MILLI, 10);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        sample(limiter, 50 * MILLI, 50);
+        int shrunk = limiter.getLimit();
+        assertThat(shrunk).isLessThan(20);
+
+        sample(limiter, 10 * MILLI, 50);
+        assertThat(limiter.getLimit()).isGreaterThan(shrunk);
+    }
+
+    private void sample(AdaptiveConcurrencyLimiter limiter, long rttNanos, int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package jy.learning.bootrestapi.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "my-app.rate-limit-per-second=0.1",
+        "my-app.rate-limit-burst=2",
+        "my-app.rate-limit-client-per-second=0.1",
+        "my-app.rate-limit-client-burst=3"
+})
+public class AdmissionControlTests extends BaseControllerTest {
+
+    @Test
+    @TestDescription("같은 IP에서 burst 보다 많이 요청하면 429와 Retry-After를 받기")
+    public void rateLimitAnonymousByIp() throws Exception {
+        this.mockMvc.perform(get("/api/events").with(request -> remoteAddr(request, "10.0.0.1")))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/api/events").with(request -> remoteAddr(request, "10.0.0.1")))
+                .andExpect(status().isOk());
+
+        this.mockMvc.perform(get("/api/events").with(request -> remoteAddr(request, "10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+
+        // 다른 IP는 자기 버킷을 쓴다.
+        this.mockMvc.perform(get("/api/events").with(request -> remoteAddr(request, "10.0.0.2")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @TestDescription("토큰 발급 요청은 IP가 달라도 클라이언트 버킷을 함께 쓰기")
+    public void rateLimitTokenRequestsByClient() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            String remoteAddr = "10.0.1." + i;
+            requestToken(remoteAddr).andExpect(status().isOk());
+        }
+
+        requestToken("10.0.1.4")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @TestDescription("쓰기 동시 실행 최대 한도를 primary 풀 크기에서 여유분을 빼서 정하기")
+    public void writeConcurrencyMaxLimitFromPool() {
+        AppProperties properties = new AppProperties();
+        properties.setWriteConcurrencyPoolHeadroom(2);
+        assertThat(AdmissionControlInterceptor.writeConcurrencyMaxLimit(properties, 10)).isEqualTo(8);
+
+        properties.setWriteConcurrencyMaxLimit(5);
+        assertThat(AdmissionControlInterceptor.writeConcurrencyMaxLimit(properties, 10)).isEqualTo(5);
+    }
+
+    @Test
+    @TestDescription("쓰기 동시 실행 최대 한도가 풀 크기를 넘으면 기동에 실패하기")
+    public void writeConcurrencyMaxLimitExceedsPool() {
+        AppProperties properties = new AppProperties();
+        properties.setWriteConcurrencyPoolHeadroom(2);
+        properties.setWriteConcurrencyMaxLimit(10);
+
+        assertThatThrownBy(() -> AdmissionControlInterceptor.writeConcurrencyMaxLimit(properties, 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private ResultActions requestToken(String remoteAddr) throws Exception {
+        return this.mockMvc.perform(post("/oauth/token")
+                .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                .with(request -> remoteAddr(request, remoteAddr))
+                .param("username", appProperties.getUserUsername())
+                .param("password", appProperties.getUserPassword())
+                .param("grant_type", "password"));
+    }
+
+    private MockHttpServletRequest remoteAddr(MockHttpServletRequest request, String remoteAddr) {
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -10,10 +10,15 @@ import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDoc
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -32,4 +37,25 @@ public class BaseControllerTest {
     @Autowired
     protected ModelMapper modelMapper;
 
+    @Autowired
+    protected AppProperties appProperties;
+
+    protected String getBearerToken() throws Exception {
+        return getBearerToken(appProperties.getUserUsername(), appProperties.getUserPassword());
+    }
+
+    protected String getBearerToken(String username, String password) throws Exception {
+        return "Bearer " + getAccessToken(username, password);
+    }
+
+    protected String getAccessToken(String username, String password) throws Exception {
+        String responseBody = this.mockMvc.perform(post("/oauth/token")
+                    .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                    .param("username", username)
+                    .param("password", password)
+                    .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new Jackson2JsonParser().parseMap(responseBody).get("access_token").toString();
+    }
 }
@@ -0,0 +1,20 @@
+package jy.learning.bootrestapi.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HalFormatTest {
+
+    @Test
+    @TestDescription("Accept 헤더의 우선순위대로 인코딩을 고르는 테스트")
+    public void negotiate() {
+        assertThat(HalFormat.negotiate(null)).isEqualTo(HalFormat.HAL_JSON);
+        assertThat(HalFormat.negotiate("*/*")).isEqualTo(HalFormat.HAL_JSON);
+        assertThat(HalFormat.negotiate("application/cbor")).isEqualTo(HalFormat.CBOR);
+        assertThat(HalFormat.negotiate("application/hal+json;q=0.5, application/x-jackson-smile"))
+                .isEqualTo(HalFormat.SMILE);
+        assertThat(HalFormat.negotiate("application/cbor;q=0, */*")).isEqualTo(HalFormat.HAL_JSON);
+        assertThat(HalFormat.negotiate("not a media type")).isEqualTo(HalFormat.HAL_JSON);
+    }
+}
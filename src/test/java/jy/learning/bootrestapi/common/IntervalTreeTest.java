@@ -0,0 +1,86 @@
+package jy.learning.bootrestapi.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    @Test
+    @TestDescription("시점을 포함하는 구간만 시작점 순서로 찾는 테스트")
+    public void stab() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.put(1, 0, 10);
+        tree.put(2, 5, 15);
+        tree.put(3, 10, 20);
+        tree.put(4, 30, 40);
+
+        assertThat(tree.stab(5)).containsExactly(1, 2);
+        assertThat(tree.stab(10)).containsExactly(2, 3);
+        assertThat(tree.stab(25)).isEmpty();
+        assertThat(tree.stab(39)).containsExactly(4);
+    }
+
+    @Test
+    @TestDescription("offset과 limit 만큼만 id를 모으고 전체 개수는 모두 세는 테스트")
+    public void stabWindow() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        for (int id = 0; id < 10; id++) {
+            tree.put(id, id, 100);
+        }
+        tree.put(10, 200, 300);
+
+        IntervalTree.Window window = tree.stab(50, 3, 4);
+        assertThat(window.getIds()).containsExactly(3, 4, 5, 6);
+        assertThat(window.getTotal()).isEqualTo(10);
+
+        IntervalTree.Window past = tree.stab(50, 20, 4);
+        assertThat(past.getIds()).isEmpty();
+        assertThat(past.getTotal()).isEqualTo(10);
+    }
+
+    @Test
+    @TestDescription("같은 id를 다시 넣거나 지우면 이전 구간이 사라지는 테스트")
+    public void replaceAndRemove() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.put(1, 0, 10);
+        tree.put(1, 20, 30);
+        assertThat(tree.stab(5)).isEmpty();
+        assertThat(tree.stab(25)).containsExactly(1);
+
+        tree.remove(1);
+        assertThat(tree.stab(25)).isEmpty();
+        assertThat(tree.size()).isZero();
+    }
+
+    @Test
+    @TestDescription("무작위 구간에 대해 전체 탐색과 같은 결과를 내는 테스트")
+    public void matchesLinearScan() {
+        Random random = new Random(42);
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        int[][] intervals = new int[500][];
+        for (int id = 0; id < intervals.length; id++) {
+            int start = random.nextInt(1000);
+            intervals[id] = new int[]{start, start + 1 + random.nextInt(100)};
+            tree.put(id, intervals[id][0], intervals[id][1]);
+        }
+        for (int id = 0; id < intervals.length; id += 3) {
+            tree.remove(id);
+            intervals[id] = null;
+        }
+
+        for (int point = 0; point < 1100; point += 7) {
+            List<Integer> expected = new ArrayList<>();
+            for (int id = 0; id < intervals.length; id++) {
+                if (intervals[id] != null && intervals[id][0] <= point && point < intervals[id][1]) {
+                    expected.add(id);
+                }
+            }
+            assertThat(tree.stab(point)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+}
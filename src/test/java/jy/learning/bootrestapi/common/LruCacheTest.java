@@ -0,0 +1,125 @@
+package jy.learning.bootrestapi.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruCacheTest {
+
+    @Test
+    @TestDescription("최대 크기를 넘으면 가장 오래 사용하지 않은 항목이 제거되는 테스트")
+    public void evictLeastRecentlyUsed() {
+        LruCache<Integer, String> cache = new LruCache<>(2, Duration.ofMinutes(1));
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1);
+        cache.put(3, "three");
+
+        assertThat(cache.get(1)).isEqualTo("one");
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isEqualTo("three");
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(3);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("TTL이 지난 항목은 miss로 처리되는 테스트")
+    public void expireAfterTtl() {
+        MutableClock clock = new MutableClock(Instant.parse("2020-10-20T00:00:00Z"));
+        LruCache<Integer, String> cache = new LruCache<>(10, Duration.ofSeconds(10), clock);
+        cache.put(1, "one");
+
+        clock.advance(Duration.ofSeconds(9));
+        assertThat(cache.get(1)).isEqualTo("one");
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @TestDescription("캐시에 더 새로운 값이 있으면 예전 값으로 덮어쓰지 않는 테스트")
+    public void putIfNewer() {
+        LruCache<Integer, Integer> cache = new LruCache<>(10, Duration.ofMinutes(1));
+        Comparator<Integer> order = Comparator.naturalOrder();
+
+        assertThat(cache.putIfNewer(1, 2, order)).isTrue();
+        assertThat(cache.putIfNewer(1, 1, order)).isFalse();
+        assertThat(cache.get(1)).isEqualTo(2);
+
+        assertThat(cache.putIfNewer(1, 3, order)).isTrue();
+        assertThat(cache.get(1)).isEqualTo(3);
+    }
+
+    @Test
+    @TestDescription("여러 스레드가 동시에 읽고 써도 최대 크기 근처를 유지하는 테스트")
+    public void concurrentAccess() throws Exception {
+        LruCache<Integer, Integer> cache = new LruCache<>(1000, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 20_000; i++) {
+                    int key = random.nextInt(5000);
+                    if (cache.get(key) == null) {
+                        cache.put(key, key);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        cache.put(-1, -1);
+        assertThat(cache.size()).isLessThanOrEqualTo(1000);
+        assertThat(cache.getHitCount() + cache.getMissCount()).isEqualTo(8 * 20_000);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
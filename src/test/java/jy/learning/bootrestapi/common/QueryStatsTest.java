@@ -0,0 +1,29 @@
+package jy.learning.bootrestapi.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryStatsTest {
+
+    @Test
+    @TestDescription("같은 문장이 반복 실행되면 가장 많이 반복된 문장으로 잡히는 테스트")
+    public void mostRepeated() {
+        QueryStats stats = QueryStats.start();
+        try {
+            stats.record("select * from event where id = ?", 2);
+            stats.record("select * from account where id = ?", 1);
+            stats.record("select * from account where id = ?", 1);
+            stats.record("select * from account where id = ?", 1);
+
+            assertThat(QueryStats.current()).isSameAs(stats);
+            assertThat(stats.getQueryCount()).isEqualTo(4);
+            assertThat(stats.getElapsedMillis()).isEqualTo(5);
+            assertThat(stats.getMostRepeated().getKey()).isEqualTo("select * from account where id = ?");
+            assertThat(stats.getRepeatCount("select * from account where id = ?")).isEqualTo(3);
+        } finally {
+            QueryStats.clear();
+        }
+        assertThat(QueryStats.current()).isNull();
+    }
+}
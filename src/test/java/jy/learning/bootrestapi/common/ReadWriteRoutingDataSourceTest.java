@@ -0,0 +1,85 @@
+package jy.learning.bootrestapi.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Test
+    @TestDescription("heartbeat를 읽을 수 없는 replica는 라우팅에서 빠지는 테스트")
+    public void excludeReplicaWithoutHeartbeat() {
+        this.replicaLagMonitor.check();
+
+        assertThat(this.routingDataSource.getHealthyReplicas()).isEmpty();
+        assertThat(lookupKey(true)).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @TestDescription("읽기 전용 트랜잭션만 지연이 없는 replica로 가는 테스트")
+    public void routeReadOnlyTransactionsToReplica() throws Exception {
+        try (StaleReplica ignored = StaleReplica.attach(this.routingDataSource, this.replicaLagMonitor, this.appProperties)) {
+            assertThat(this.routingDataSource.getHealthyReplicas()).containsExactly(StaleReplica.NAME);
+
+            assertThat(lookupKey(true)).isEqualTo(StaleReplica.NAME);
+            assertThat(lookupKey(false)).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+
+            ReadWriteRoutingDataSource.forcePrimary();
+            try {
+                assertThat(lookupKey(true)).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+            } finally {
+                ReadWriteRoutingDataSource.clearForcePrimary();
+            }
+
+            this.routingDataSource.markLagging(StaleReplica.NAME);
+            assertThat(lookupKey(true)).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+        }
+    }
+
+    @Test
+    @TestDescription("onPrimary 안의 읽기는 primary로 가고 끝나면 원래대로 돌아오는 테스트")
+    public void onPrimary() throws Exception {
+        try (StaleReplica ignored = StaleReplica.attach(this.routingDataSource, this.replicaLagMonitor, this.appProperties)) {
+            Object inside = ReadWriteRoutingDataSource.onPrimary(() -> lookupKey(true));
+            assertThat(inside).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+            assertThat(lookupKey(true)).isEqualTo(StaleReplica.NAME);
+
+            // 이미 강제된 상태는 onPrimary가 끝나도 풀지 않는다.
+            ReadWriteRoutingDataSource.forcePrimary();
+            try {
+                ReadWriteRoutingDataSource.onPrimary(() -> lookupKey(true));
+                assertThat(lookupKey(true)).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+            } finally {
+                ReadWriteRoutingDataSource.clearForcePrimary();
+            }
+        }
+    }
+
+    private Object lookupKey(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> this.routingDataSource.determineCurrentLookupKey());
+    }
+}
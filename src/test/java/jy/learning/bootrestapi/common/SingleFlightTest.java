@@ -0,0 +1,118 @@
+package jy.learning.bootrestapi.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    @TestDescription("같은 키를 동시에 읽으면 loader는 한 번만 실행되고 모두 같은 결과를 받는 테스트")
+    public void collapseConcurrentLoads() throws Exception {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Future<String>> results = runConcurrently(singleFlight, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "event";
+        }, release);
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("event");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.getLoadCount()).isEqualTo(1);
+        assertThat(singleFlight.getCollapsedCount()).isEqualTo(CALLERS - 1);
+
+        // 끝난 로드는 보관하지 않는다.
+        assertThat(singleFlight.load(1, () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    @TestDescription("loader의 예외를 기다리던 요청들도 그대로 받는 테스트")
+    public void propagateError() throws Exception {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(singleFlight, () -> {
+            await(release);
+            throw new IllegalStateException("db down");
+        }, release);
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("db down");
+        }
+    }
+
+    @Test
+    @TestDescription("기다리는 시간을 넘기면 SingleFlightTimeoutException을 받는 테스트")
+    public void timeout() throws Exception {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.load(1, () -> {
+                started.countDown();
+                await(release);
+                return "event";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> singleFlight.load(1, () -> "unused"))
+                    .isInstanceOf(SingleFlightTimeoutException.class);
+            assertThat(singleFlight.getTimeoutCount()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("event");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Future<String>> runConcurrently(SingleFlight<Integer, String> singleFlight,
+                                                 Supplier<String> loader,
+                                                 CountDownLatch release) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.load(1, loader)));
+        }
+        executor.shutdown();
+
+        // 모두 leader를 기다리는 중일 때 loader를 끝낸다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getLoadCount() + singleFlight.getCollapsedCount() < CALLERS
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
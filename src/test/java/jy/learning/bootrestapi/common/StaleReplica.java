@@ -0,0 +1,69 @@
+package jy.learning.bootrestapi.common;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 테스트용 replica(별도 in-memory DB)에 primary의 스키마만 복사하고 heartbeat를 미래 시각으로 넣어서
+ * 데이터는 하나도 없지만 지연이 없다고 판단되는 replica를 만든다.
+ * 이 상태에서 replica로 간 읽기는 방금 쓴 데이터를 못 보므로 primary로 가야 할 읽기를 테스트로 잡을 수 있다.
+ * close하면 replica를 비우고 라우팅에서 뺀다.
+ */
+public class StaleReplica implements AutoCloseable {
+
+    public static final String NAME = "replica-0";
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    private final String url;
+
+    private StaleReplica(ReadWriteRoutingDataSource routingDataSource, String url) {
+        this.routingDataSource = routingDataSource;
+        this.url = url;
+    }
+
+    public static StaleReplica attach(ReadWriteRoutingDataSource routingDataSource,
+                                      ReplicaLagMonitor replicaLagMonitor,
+                                      AppProperties appProperties) throws SQLException {
+        StaleReplica replica = new StaleReplica(routingDataSource, appProperties.getReplicaUrls().get(0));
+        List<String> schema = new JdbcTemplate(routingDataSource.getPrimary()).queryForList("SCRIPT NODATA", String.class);
+        try (Connection connection = replica.connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : schema) {
+                // 계정과 DB 설정은 replica 쪽 것을 그대로 둔다.
+                if (sql.startsWith("--") || sql.startsWith("CREATE USER") || sql.startsWith("SET ")) {
+                    continue;
+                }
+                statement.execute(sql);
+            }
+        }
+        try (Connection connection = replica.connect();
+             PreparedStatement statement = connection.prepareStatement(
+                     "insert into replication_heartbeat (id, beat_at) values (1, ?)")) {
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().plusHours(1)));
+            statement.executeUpdate();
+        }
+        replicaLagMonitor.check();
+        return replica;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        routingDataSource.markLagging(NAME);
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, "sa", "");
+    }
+}
@@ -3,12 +3,18 @@ package jy.learning.bootrestapi.configs;
 import jy.learning.bootrestapi.accounts.Account;
 import jy.learning.bootrestapi.accounts.AccountRole;
 import jy.learning.bootrestapi.accounts.AccountService;
-import jy.learning.bootrestapi.common.AppProperties;
 import jy.learning.bootrestapi.common.BaseControllerTest;
+import jy.learning.bootrestapi.common.ReadWriteRoutingDataSource;
+import jy.learning.bootrestapi.common.ReplicaLagMonitor;
+import jy.learning.bootrestapi.common.StaleReplica;
 import jy.learning.bootrestapi.common.TestDescription;
+import jy.learning.bootrestapi.tokens.AccessTokenRecordRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -21,7 +27,13 @@ public class AuthServerConfigTest extends BaseControllerTest {
     AccountService accountService;
 
     @Autowired
-    AppProperties appProperties;
+    AccessTokenRecordRepository accessTokenRecordRepository;
+
+    @Autowired
+    ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
 
     @Test
     @TestDescription("인증 토큰을 발급 받는 테스트")
@@ -44,4 +56,48 @@ public class AuthServerConfigTest extends BaseControllerTest {
                 .andExpect(jsonPath("access_token").isNotEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    @TestDescription("발급한 토큰이 만료 시각과 함께 DB에 저장되는 테스트")
+    public void storeIssuedToken() throws Exception {
+        //when
+        this.mockMvc.perform(post("/oauth/token")
+                    .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                    .param("username", appProperties.getUserUsername())
+                    .param("password", appProperties.getUserPassword())
+                    .param("grant_type", "password")
+                )
+                .andExpect(status().isOk());
+
+        //then
+        assertThat(accessTokenRecordRepository.findAll())
+                .isNotEmpty()
+                .allSatisfy(record -> assertThat(record.getExpiration()).isNotNull());
+    }
+
+    @Test
+    @TestDescription("replica가 지연돼도 가입 직후 바로 로그인할 수 있다")
+    public void getAuthTokenRightAfterSignUp() throws Exception {
+        try (StaleReplica ignored = StaleReplica.attach(this.routingDataSource, this.replicaLagMonitor, this.appProperties)) {
+            //Given
+            String username = "stale-replica-" + UUID.randomUUID() + "@email.com";
+            String password = "stale-replica";
+            this.accountService.saveAccount(Account.builder()
+                    .email(username)
+                    .password(password)
+                    .roles(AccountRole.makeSetRoles(AccountRole.USER))
+                    .build());
+
+            //when & then
+            this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                        .param("username", username)
+                        .param("password", password)
+                        .param("grant_type", "password")
+                    )
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("access_token").isNotEmpty());
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package jy.learning.bootrestapi.configs;
+
+import jy.learning.bootrestapi.accounts.Account;
+import jy.learning.bootrestapi.accounts.AccountRepository;
+import jy.learning.bootrestapi.common.BaseControllerTest;
+import jy.learning.bootrestapi.common.TestDescription;
+import jy.learning.bootrestapi.events.Event;
+import jy.learning.bootrestapi.events.EventDto;
+import jy.learning.bootrestapi.events.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "my-app.token-format=jwt",
+        "my-app.token-signing-key=test-signing-key-that-is-at-least-32-bytes"
+})
+public class JwtTokenConfigTest extends BaseControllerTest {
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    TokenStore tokenStore;
+
+    @Test
+    @TestDescription("JWT로 발급 받은 토큰의 claim으로 @CurrentUser를 채워 이벤트를 생성하고 수정하기")
+    public void createAndUpdateEventWithJwt() throws Exception {
+        // Given
+        assertThat(tokenStore).isInstanceOf(JwtTokenStore.class);
+        String accessToken = getAccessToken(appProperties.getUserUsername(), appProperties.getUserPassword());
+        assertThat(accessToken.split("\\.")).hasSize(3);
+        Account user = accountRepository.findByEmail(appProperties.getUserUsername()).get();
+
+        // When
+        String responseBody = this.mockMvc.perform(post("/api/events/")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .accept(MediaTypes.HAL_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto("JWT"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("_links.update-event").exists())
+                .andReturn().getResponse().getContentAsString();
+        Integer id = ((Number) new Jackson2JsonParser().parseMap(responseBody).get("id")).intValue();
+
+        // Then
+        Event created = eventRepository.findById(id).get();
+        assertThat(created.getManager().getId()).isEqualTo(user.getId());
+
+        this.mockMvc.perform(put("/api/events/{id}", id)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                    .contentType(MediaTypes.HAL_JSON_VALUE)
+                    .content(this.objectMapper.writeValueAsString(eventDto("JWT updated"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("JWT updated"));
+    }
+
+    @Test
+    @TestDescription("JWT 서명 키가 없거나 예시 값이거나 짧으면 기동에 실패하기")
+    public void validateSigningKey() {
+        assertThatThrownBy(() -> JwtTokenConfig.validateSigningKey(null))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> JwtTokenConfig.validateSigningKey(" "))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> JwtTokenConfig.validateSigningKey(JwtTokenConfig.PLACEHOLDER_SIGNING_KEY))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> JwtTokenConfig.validateSigningKey("too-short"))
+                .isInstanceOf(IllegalStateException.class);
+
+        String key = "test-signing-key-that-is-at-least-32-bytes";
+        assertThat(JwtTokenConfig.validateSigningKey(key)).isEqualTo(key);
+    }
+
+    private EventDto eventDto(String name) {
+        return EventDto.builder()
+                .name(name)
+                .description("REST API Development With Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 10, 18, 12, 26))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 10, 19, 12, 26))
+                .beginEventDateTime(LocalDateTime.of(2020, 10, 20, 12, 26))
+                .endEventDateTime(LocalDateTime.of(2020, 10, 21, 0, 26))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package jy.learning.bootrestapi.configs;
+
+import jy.learning.bootrestapi.common.BaseControllerTest;
+import jy.learning.bootrestapi.common.TestDescription;
+import jy.learning.bootrestapi.events.Event;
+import jy.learning.bootrestapi.events.EventService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MetricsTest extends BaseControllerTest {
+
+    @Autowired
+    EventService eventService;
+
+    @Test
+    @TestDescription("인증한 사용자가 Prometheus 형식 지표를 조회하기")
+    public void scrapePrometheus() throws Exception {
+        Event event = this.eventService.save(Event.builder().name("metrics").limitOfEnrollment(10).build());
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk());
+
+        this.mockMvc.perform(get("/actuator/prometheus")
+                    .header(HttpHeaders.AUTHORIZATION,
+                            getBearerToken(appProperties.getAdminUsername(), appProperties.getAdminPassword())))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("uri=\"/api/events/{id}\"")))
+                .andExpect(content().string(containsString("events_serialization_seconds")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"events\"")))
+                .andExpect(content().string(containsString("hikaricp_connections")))
+                .andExpect(content().string(containsString("oauth_tokens_verified_total")));
+    }
+
+    @Test
+    @TestDescription("인증 없이 Prometheus 지표를 조회하면 401 응답받기")
+    public void scrapePrometheus_Unauthorized() throws Exception {
+        this.mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @TestDescription("인증 없이 health 조회하기")
+    public void health() throws Exception {
+        this.mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
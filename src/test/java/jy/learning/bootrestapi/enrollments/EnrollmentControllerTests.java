@@ -0,0 +1,113 @@
+package jy.learning.bootrestapi.enrollments;
+
+import jy.learning.bootrestapi.common.BaseControllerTest;
+import jy.learning.bootrestapi.common.TestDescription;
+import jy.learning.bootrestapi.events.Event;
+import jy.learning.bootrestapi.events.EventService;
+import jy.learning.bootrestapi.events.EventStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.delete;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class EnrollmentControllerTests extends BaseControllerTest {
+
+    @Autowired
+    EventService eventService;
+
+    @Test
+    @TestDescription("이벤트에 등록하고 취소하기")
+    public void enrollAndCancel() throws Exception {
+        // Given
+        Event event = this.eventService.save(buildEvent(2));
+        String bearerToken = getBearerToken();
+
+        // When & Then
+        this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("id").exists())
+                .andExpect(jsonPath("account.id").exists())
+                .andExpect(jsonPath("_links.event").exists())
+                .andExpect(jsonPath("_links.cancel-enrollment").exists())
+                .andDo(document("create-enrollment"));
+
+        this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isConflict());
+
+        this.mockMvc.perform(delete("/api/events/{eventId}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isNoContent())
+                .andDo(document("cancel-enrollment"));
+
+        this.mockMvc.perform(delete("/api/events/{eventId}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @TestDescription("정원이 없는 이벤트에 등록하면 409 응답받기")
+    public void enroll_Conflict_When_Full() throws Exception {
+        Event event = this.eventService.save(buildEvent(0));
+
+        this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @TestDescription("등록 기간이 지난 이벤트에 등록하면 400 응답받기")
+    public void enroll_Bad_Request_When_Closed() throws Exception {
+        Event event = buildEvent(10);
+        event.setCloseEnrollmentDateTime(LocalDateTime.now().minusHours(1));
+        event = this.eventService.save(event);
+
+        this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @TestDescription("등록을 시작하지 않은 이벤트에 등록하면 400 응답받기")
+    public void enroll_Bad_Request_When_Not_Began() throws Exception {
+        Event event = buildEvent(10);
+        event.setEventStatus(EventStatus.PUBLISHED);
+        event = this.eventService.save(event);
+
+        this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @TestDescription("없는 이벤트에 등록하면 404 응답받기")
+    public void enroll_Not_Found() throws Exception {
+        this.mockMvc.perform(post("/api/events/{eventId}/enrollments", 987654)
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isNotFound());
+    }
+
+    private Event buildEvent(int limitOfEnrollment) {
+        LocalDateTime now = LocalDateTime.now();
+        return Event.builder()
+                .name("enrollment")
+                .description("enrollment test event")
+                .beginEnrollmentDateTime(now.minusDays(1))
+                .closeEnrollmentDateTime(now.plusDays(1))
+                .beginEventDateTime(now.plusDays(2))
+                .endEventDateTime(now.plusDays(3))
+                .limitOfEnrollment(limitOfEnrollment)
+                .eventStatus(EventStatus.BEGAN_ENROLLMENT)
+                .build();
+    }
+}
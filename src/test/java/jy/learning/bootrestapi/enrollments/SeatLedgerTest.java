@@ -0,0 +1,186 @@
+package jy.learning.bootrestapi.enrollments;
+
+import jy.learning.bootrestapi.common.AppProperties;
+import jy.learning.bootrestapi.common.TestDescription;
+import jy.learning.bootrestapi.events.Event;
+import jy.learning.bootrestapi.events.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class SeatLedgerTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    SeatLeaseRepository seatLeaseRepository;
+
+    @Autowired
+    SeatReconciler seatReconciler;
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Test
+    @TestDescription("동시에 좌석을 요청해도 정원보다 많이 내주지 않는 테스트")
+    public void neverOverbook() throws Exception {
+        SeatLedger seatLedger = newSeatLedger(appProperties.getEnrollmentLeaseIdleTimeout());
+        Event event = this.eventRepository.save(Event.builder().name("seats").limitOfEnrollment(45).build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<Boolean>> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(() -> {
+                Optional<SeatLedger.Seat> seat = seatLedger.acquire(event.getId());
+                seat.ifPresent(SeatLedger.Seat::confirm);
+                return seat.isPresent();
+            });
+        }
+        int acquired = 0;
+        for (Future<Boolean> result : executor.invokeAll(requests)) {
+            if (result.get()) {
+                acquired++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(acquired).isEqualTo(45);
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(0);
+        seatLedger.destroy();
+    }
+
+    @Test
+    @TestDescription("쓰지 않은 좌석을 DB로 돌려주고 리스를 지우는 테스트")
+    public void releaseUnusedSeats() {
+        SeatLedger seatLedger = newSeatLedger(appProperties.getEnrollmentLeaseIdleTimeout());
+        Event event = this.eventRepository.save(Event.builder().name("seats").limitOfEnrollment(100).build());
+
+        Optional<SeatLedger.Seat> seat = seatLedger.acquire(event.getId());
+        assertThat(seat).isPresent();
+        seat.get().release();
+        assertThat(seatLedger.getAvailableSeats(event.getId())).isPositive();
+        assertThat(liveLeasedSeats(event, LocalDateTime.now())).isEqualTo(appProperties.getEnrollmentSeatBlockSize());
+
+        seatLedger.destroy();
+
+        assertThat(seatLedger.getAvailableSeats(event.getId())).isZero();
+        assertThat(seatLedger.getPoolCount()).isZero();
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(100);
+        assertThat(liveLeasedSeats(event, LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    @TestDescription("오래 쓰지 않은 풀은 좌석을 돌려주고 지우는 테스트")
+    public void pruneIdlePools() throws InterruptedException {
+        SeatLedger seatLedger = newSeatLedger(Duration.ZERO);
+        Event event = this.eventRepository.save(Event.builder().name("seats").limitOfEnrollment(100).build());
+
+        seatLedger.acquire(event.getId()).ifPresent(SeatLedger.Seat::release);
+        assertThat(seatLedger.getPoolCount()).isEqualTo(1);
+
+        Thread.sleep(10);
+        seatLedger.releaseIdleSeats();
+
+        assertThat(seatLedger.getPoolCount()).isZero();
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(100);
+    }
+
+    @Test
+    @TestDescription("좌석을 돌려주지 못하고 죽은 인스턴스의 좌석을 대사로 회수하는 테스트")
+    public void reconcileSeatsOfCrashedInstance() {
+        SeatLedger crashed = newSeatLedger(appProperties.getEnrollmentLeaseIdleTimeout());
+        Event event = this.eventRepository.save(Event.builder().name("seats").limitOfEnrollment(100).build());
+        crashed.acquire(event.getId()).ifPresent(SeatLedger.Seat::release);
+        int blockSize = appProperties.getEnrollmentSeatBlockSize();
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(100 - blockSize);
+
+        // 리스가 살아 있는 동안은 그대로 둔다.
+        this.seatReconciler.reconcile(LocalDateTime.now());
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(100 - blockSize);
+
+        // destroy() 없이 리스 갱신이 끊겼다.
+        LocalDateTime later = LocalDateTime.now().plus(appProperties.getEnrollmentLeaseTimeout()).plusSeconds(1);
+        this.seatReconciler.reconcile(later);
+
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(100);
+        assertThat(liveLeasedSeats(event, LocalDateTime.now().minusYears(1))).isZero();
+    }
+
+    @Test
+    @TestDescription("좌석을 받은 뒤 리스가 만료되면 확정할 때 좌석을 다시 잡는 테스트")
+    public void reserveAgainWhenLeaseExpiredBeforeConfirm() throws InterruptedException {
+        Duration leaseTimeout = Duration.ofMillis(200);
+        SeatLedger seatLedger = newSeatLedger(appProperties.getEnrollmentLeaseIdleTimeout(), leaseTimeout);
+        Event event = this.eventRepository.save(Event.builder().name("seats").limitOfEnrollment(100).build());
+        Optional<SeatLedger.Seat> seat = seatLedger.acquire(event.getId());
+        assertThat(seat).isPresent();
+
+        // 등록을 저장하는 사이 리스가 만료돼 좌석을 버렸고 대사가 회수했다.
+        Thread.sleep(leaseTimeout.toMillis() + 50);
+        seatLedger.renewLeases();
+        this.seatReconciler.reconcile(LocalDateTime.now());
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(100);
+
+        assertThat(seat.get().confirm()).isTrue();
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(99);
+    }
+
+    @Test
+    @TestDescription("리스가 만료된 좌석을 다른 인스턴스가 가져갔으면 확정을 거절하는 테스트")
+    public void refuseWhenLeaseExpiredAndEventFull() throws InterruptedException {
+        Duration leaseTimeout = Duration.ofMillis(200);
+        SeatLedger seatLedger = newSeatLedger(appProperties.getEnrollmentLeaseIdleTimeout(), leaseTimeout);
+        SeatLedger other = newSeatLedger(appProperties.getEnrollmentLeaseIdleTimeout());
+        Event event = this.eventRepository.save(Event.builder().name("seats").limitOfEnrollment(1).build());
+        Optional<SeatLedger.Seat> seat = seatLedger.acquire(event.getId());
+        assertThat(seat).isPresent();
+
+        Thread.sleep(leaseTimeout.toMillis() + 50);
+        seatLedger.renewLeases();
+        this.seatReconciler.reconcile(LocalDateTime.now());
+        other.acquire(event.getId()).ifPresent(SeatLedger.Seat::confirm);
+
+        assertThat(seat.get().confirm()).isFalse();
+        assertThat(this.eventRepository.findRemainingSeats(event.getId())).contains(0);
+        other.destroy();
+    }
+
+    private SeatLedger newSeatLedger(Duration idleTimeout) {
+        return newSeatLedger(idleTimeout, appProperties.getEnrollmentLeaseTimeout());
+    }
+
+    private SeatLedger newSeatLedger(Duration idleTimeout, Duration leaseTimeout) {
+        AppProperties properties = new AppProperties();
+        properties.setEnrollmentSeatBlockSize(appProperties.getEnrollmentSeatBlockSize());
+        properties.setEnrollmentLeaseIdleTimeout(idleTimeout);
+        properties.setEnrollmentLeaseTimeout(leaseTimeout);
+        return new SeatLedger(this.eventRepository, this.seatLeaseRepository, properties);
+    }
+
+    private long liveLeasedSeats(Event event, LocalDateTime liveSince) {
+        return this.seatLeaseRepository.sumLiveSeats(Collections.singletonList(event.getId()), liveSince)
+                .stream()
+                .mapToLong(row -> ((Number) row[1]).longValue())
+                .sum();
+    }
+}
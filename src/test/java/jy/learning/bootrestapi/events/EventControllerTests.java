@@ -4,29 +4,52 @@ import jy.learning.bootrestapi.accounts.Account;
 import jy.learning.bootrestapi.accounts.AccountRepository;
 import jy.learning.bootrestapi.accounts.AccountRole;
 import jy.learning.bootrestapi.accounts.AccountService;
-import jy.learning.bootrestapi.common.AppProperties;
 import jy.learning.bootrestapi.common.BaseControllerTest;
+import jy.learning.bootrestapi.common.HalFormat;
+import jy.learning.bootrestapi.common.QueryStats;
+import jy.learning.bootrestapi.common.ReadWriteRoutingDataSource;
+import jy.learning.bootrestapi.common.ReplicaLagMonitor;
+import jy.learning.bootrestapi.common.StaleReplica;
 import jy.learning.bootrestapi.common.TestDescription;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
-import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
-import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
 import static org.springframework.restdocs.payload.PayloadDocumentation.*;
-import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -41,10 +64,22 @@ public class EventControllerTests extends BaseControllerTest {
     AccountService accountService;
 
     @Autowired
-    AppProperties appProperties;
+    AccountRepository accountRepository;
 
     @Autowired
-    AccountRepository accountRepository;
+    EventService eventService;
+
+    @Autowired
+    EventLifecycleScheduler eventLifecycleScheduler;
+
+    @Autowired
+    RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
 
     @Test
     @TestDescription("정상적으로 이벤트를 생성하는 테스트")
@@ -127,42 +162,95 @@ public class EventControllerTests extends BaseControllerTest {
             ;
     }
 
-    private String getBearerToken() throws Exception {
-        return "Bearer " + getAccessToken(false);
+    @Test
+    @TestDescription("여러 이벤트를 한 번에 생성하는 테스트")
+    public void createEvents() throws Exception {
+        List<EventDto> events = IntStream.range(0, 3)
+                .mapToObj(this::buildEventDto)
+                .collect(Collectors.toList());
+
+        mockMvc.perform(post("/api/events/batch")
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .accept(MediaTypes.HAL_JSON)
+                    .content(objectMapper.writeValueAsString(events)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("created").value(3))
+                .andExpect(jsonPath("_links.query-events").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("create-events"));
     }
 
-    private String getBearerToken(boolean needToCreateAccount) throws Exception {
-        return "Bearer " + getAccessToken(needToCreateAccount);
+    @Test
+    @TestDescription("NDJSON으로 여러 이벤트를 한 번에 생성하는 테스트")
+    public void createEvents_Ndjson() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            content.append(objectMapper.writeValueAsString(buildEventDto(i))).append('\n');
+        }
+
+        mockMvc.perform(post("/api/events/batch")
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                    .contentType(EventController.NDJSON_VALUE)
+                    .accept(MediaTypes.HAL_JSON)
+                    .content(content.toString()))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("created").value(3));
     }
 
-    private String getAccessToken(boolean needToCreateAccount) throws Exception {
-        //Given
-        if (needToCreateAccount)
-            createAccount();
+    @Test
+    @TestDescription("NDJSON 중간에 JSON이 아닌 줄이 있으면 전체가 실패하는 테스트")
+    public void createEvents_Ndjson_Malformed() throws Exception {
+        String content = objectMapper.writeValueAsString(buildEventDto(0)) + "\nnot json\n";
+        long before = eventRepository.count();
 
-        //when & then
-        ResultActions perform = this.mockMvc.perform(post("/oauth/token")
-                .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
-                .param("username", appProperties.getUserUsername())
-                .param("password", appProperties.getUserPassword())
-                .param("grant_type", "password")
-        );
+        mockMvc.perform(post("/api/events/batch")
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                    .contentType(EventController.NDJSON_VALUE)
+                    .content(content))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
 
-        MockHttpServletResponse response = perform.andReturn().getResponse();
-        String responseBody = response.getContentAsString();
-        Jackson2JsonParser jsonParser = new Jackson2JsonParser();
-        return jsonParser.parseMap(responseBody).get("access_token").toString();
+        assertThat(eventRepository.count()).isEqualTo(before);
     }
 
-    private Account createAccount() {
-        Account account = Account.builder()
-                .id(0)
-                .email(appProperties.getUserUsername())
-                .password(appProperties.getUserPassword())
-                .roles(AccountRole.makeSetRoles(AccountRole.ADMIN, AccountRole.USER))
-                .build();
+    @Test
+    @TestDescription("잘못된 항목이 있으면 항목별 에러와 함께 전체가 실패하는 테스트")
+    public void createEvents_Bad_Request() throws Exception {
+        EventDto wrong = buildEventDto(1);
+        wrong.setBasePrice(10000);
+        wrong.setMaxPrice(200);
+        List<EventDto> events = Arrays.asList(buildEventDto(0), wrong);
+        long before = eventRepository.count();
 
-        return this.accountService.saveAccount(account);
+        mockMvc.perform(post("/api/events/batch")
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .content(objectMapper.writeValueAsString(events)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].index").value(1))
+                .andExpect(jsonPath("$[0].errors[0].objectName").value("eventDto[1]"))
+                .andExpect(jsonPath("$[0].errors[0].code").exists());
+
+        assertThat(eventRepository.count()).isEqualTo(before);
+    }
+
+    private EventDto buildEventDto(int index) {
+        return EventDto.builder()
+                .name("Spring " + index)
+                .description("REST API Development With Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 10, 18, 12, 26))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 10, 19, 12, 26))
+                .beginEventDateTime(LocalDateTime.of(2020, 10, 20, 12, 26))
+                .endEventDateTime(LocalDateTime.of(2020, 10, 21, 0, 26))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
     }
 
     @Test
@@ -256,6 +344,85 @@ public class EventControllerTests extends BaseControllerTest {
         ;
     }
 
+    @Test
+    @TestDescription("이벤트 목록 조회가 SQL 예산 안에서 반복 쿼리 없이 끝나는지 확인하기")
+    public void queryEventsWithinQueryBudget() throws Exception {
+        // Given
+        IntStream.range(0, 30).forEach(i -> {
+            Account manager = this.accountRepository.save(Account.builder()
+                    .email("manager" + i + "@email.com")
+                    .password("pass")
+                    .roles(AccountRole.makeSetRoles(AccountRole.ADMIN, AccountRole.USER))
+                    .build());
+            generateEvent(i, manager);
+        });
+        int budget = this.appProperties.getQueryBudgets()
+                .getOrDefault("GET /api/events", this.appProperties.getQueryBudget());
+
+        // When
+        MvcResult result = this.mockMvc.perform(get("/api/events")
+                .param("page", "1")
+                .param("size", "10")
+            )
+            .andExpect(status().isOk())
+            .andReturn();
+
+        // Then
+        QueryStats stats = (QueryStats) result.getRequest().getAttribute(QueryStats.ATTRIBUTE);
+        assertThat(stats.getQueryCount()).isLessThanOrEqualTo(budget);
+        assertThat(stats.getMostRepeated().getValue()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("필요한 필드만 골라서 이벤트 목록 조회하기")
+    public void queryEventFields() throws Exception {
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // When & Then
+        MvcResult result = this.mockMvc.perform(get("/api/events")
+                .param("fields", "name,beginEventDateTime,free,manager")
+                .param("page", "1")
+                .param("size", "10")
+                .param("sort", "name,DESC")
+            )
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList[0].id").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].name").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].beginEventDateTime").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].free").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].description").doesNotExist())
+            .andExpect(jsonPath("_embedded.eventList[0].location").doesNotExist())
+            .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+            .andExpect(jsonPath("page.totalElements").isNumber())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("query-event-fields"))
+            .andReturn();
+
+        QueryStats stats = (QueryStats) result.getRequest().getAttribute(QueryStats.ATTRIBUTE);
+        assertThat(stats.getQueryCount()).isEqualTo(2);
+        assertThat(stats.getMostRepeated().getValue()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("없는 필드를 고르면 400 응답받기")
+    public void queryEventFields_Bad_Request() throws Exception {
+        this.mockMvc.perform(get("/api/events").param("fields", "name,password"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @TestDescription("q, fields, after를 함께 써서 이벤트 목록을 조회하면 400 응답받기")
+    public void queryEventsWithConflictingParams_Bad_Request() throws Exception {
+        this.mockMvc.perform(get("/api/events").param("q", "spring").param("fields", "name"))
+            .andExpect(status().isBadRequest());
+        this.mockMvc.perform(get("/api/events").param("fields", "name").param("after", ""))
+            .andExpect(status().isBadRequest());
+        this.mockMvc.perform(get("/api/events").param("q", "spring").param("after", ""))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @TestDescription("30개의 이벤트를 10개씩 두번째 페이지 조회하기")
     public void queryEventsWithAuthentication() throws Exception {
@@ -280,6 +447,285 @@ public class EventControllerTests extends BaseControllerTest {
         ;
     }
 
+    @Test
+    @TestDescription("이름, 설명, 장소에 대한 전문 검색 결과를 관련도 순으로 조회하기")
+    public void queryEventsByText() throws Exception {
+        // Given
+        Event description = buildEvent(200);
+        description.setName("meetup");
+        description.setDescription("hibernate tuning");
+        this.eventService.save(description);
+        Event name = buildEvent(201);
+        name.setName("Hibernate Hibernate");
+        this.eventService.save(name);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events")
+                .param("q", "hibernate")
+                .param("size", "10")
+            )
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(2))
+            .andExpect(jsonPath("_embedded.eventList[0].id").value(name.getId()))
+            .andExpect(jsonPath("_embedded.eventList[1].id").value(description.getId()))
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("query-events-by-text"))
+        ;
+    }
+
+    @Test
+    @TestDescription("이벤트를 수정하면 전문 검색 색인도 바뀐다")
+    public void queryEventsByTextAfterUpdate() throws Exception {
+        // Given
+        Event event = buildEvent(202);
+        event.setName("obsoleteword");
+        event = this.eventService.save(event);
+        event.setName("replacementword");
+        this.eventService.save(event);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events").param("q", "obsoleteword"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(0));
+        this.mockMvc.perform(get("/api/events").param("q", "replacementword"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList[0].id").value(event.getId()));
+    }
+
+    @Test
+    @TestDescription("특정 시점에 등록 기간 중인 이벤트와 진행 중인 이벤트 조회하기")
+    public void queryEventsOpenForEnrollmentAndRunning() throws Exception {
+        // Given
+        Event event = buildEvent(300);
+        event.setBeginEnrollmentDateTime(LocalDateTime.of(2031, 3, 1, 9, 0));
+        event.setCloseEnrollmentDateTime(LocalDateTime.of(2031, 3, 10, 9, 0));
+        event.setBeginEventDateTime(LocalDateTime.of(2031, 3, 20, 19, 0));
+        event.setEndEventDateTime(LocalDateTime.of(2031, 3, 20, 22, 0));
+        event = this.eventService.save(event);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/open-for-enrollment").param("at", "2031-03-05T12:00:00"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(1))
+            .andExpect(jsonPath("_embedded.eventList[0].id").value(event.getId()))
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("query-events-open-for-enrollment"));
+        this.mockMvc.perform(get("/api/events/open-for-enrollment").param("at", "2031-03-10T09:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(0));
+        this.mockMvc.perform(get("/api/events/running").param("at", "2031-03-20T20:00:00"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(1))
+            .andExpect(jsonPath("_embedded.eventList[0].id").value(event.getId()))
+            .andDo(document("query-events-running"));
+    }
+
+    @Test
+    @TestDescription("상태와 가격, 기간 조건으로 이벤트 검색하기")
+    public void searchEvents() throws Exception {
+        // Given
+        IntStream.range(0, 5).forEach(this::generateEvent);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/search")
+                .param("eventStatus", EventStatus.DRAFT.name())
+                .param("free", "false")
+                .param("basePriceFrom", "50")
+                .param("basePriceTo", "150")
+                .param("beginEventFrom", "2020-10-20T00:00:00")
+                .param("beginEventTo", "2020-10-21T00:00:00")
+                .param("size", "3")
+                .param("sort", "beginEventDateTime,ASC")
+            )
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").isNumber())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+            .andExpect(jsonPath("_embedded.eventList[0].eventStatus").value(EventStatus.DRAFT.name()))
+            .andExpect(jsonPath("_embedded.eventList[0].basePrice").value(100))
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("search-events"))
+        ;
+    }
+
+    @Test
+    @TestDescription("조건에 맞는 이벤트가 없으면 빈 페이지 응답받기")
+    public void searchEventsEmpty() throws Exception {
+        this.mockMvc.perform(get("/api/events/search")
+                .param("basePriceFrom", "1000000")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(0))
+            .andExpect(jsonPath("_embedded").doesNotExist());
+    }
+
+    @Test
+    @TestDescription("전체 이벤트를 NDJSON으로 내보내기")
+    public void exportEvents() throws Exception {
+        // Given
+        IntStream.range(0, 3).forEach(this::generateEvent);
+
+        // When
+        MvcResult mvcResult = this.mockMvc.perform(get("/api/events/export")
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // 요청 스레드에 QueryStats가 남지 않는다.
+        assertThat(QueryStats.current()).isNull();
+
+        // Then
+        MockHttpServletResponse response = this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, EventController.NDJSON_VALUE))
+                .andReturn().getResponse();
+        String[] lines = response.getContentAsString().split("\n");
+        assertThat(lines.length).isEqualTo((int) eventRepository.count());
+        assertThat(this.objectMapper.readTree(lines[0]).has("name")).isTrue();
+        assertThat(this.objectMapper.readTree(lines[0]).has("_links")).isFalse();
+    }
+
+    @Test
+    @TestDescription("인증 없이 내보내기를 요청하면 401")
+    public void exportEvents_Unauthorized() throws Exception {
+        this.mockMvc.perform(get("/api/events/export"))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @TestDescription("방금 쓴 사용자가 내보내기를 요청해도 요청 스레드에 primary 강제가 남지 않기")
+    public void exportEventsAfterWrite() throws Exception {
+        // Given
+        String bearerToken = getBearerToken();
+        this.mockMvc.perform(post("/api/events")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        // When
+        MvcResult mvcResult = this.mockMvc.perform(get("/api/events/export")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        assertThat(ReadWriteRoutingDataSource.isPrimaryForced()).isFalse();
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+        assertThat(ReadWriteRoutingDataSource.isPrimaryForced()).isFalse();
+    }
+
+    @Test
+    @TestDescription("커서 기반으로 30개의 이벤트를 10개씩 조회하기")
+    public void queryEventsByCursor() throws Exception {
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // When
+        this.mockMvc.perform(get("/api/events")
+                .param("after", "")
+                .param("size", "10")
+            )
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page").doesNotExist())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+            .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+            .andExpect(jsonPath("_links.self").exists())
+            .andExpect(jsonPath("_links.next").exists())
+            .andExpect(jsonPath("_links.profile").exists())
+        ;
+    }
+
+    @Test
+    @TestDescription("시작 시각이 없는 이벤트도 커서로 빠짐없이 한 번씩 조회하기")
+    public void queryEventsByCursorWithUndatedEvents() throws Exception {
+        // Given
+        List<Integer> undated = IntStream.range(0, 3)
+                .mapToObj(i -> {
+                    Event event = buildEvent(i);
+                    event.setBeginEventDateTime(null);
+                    return this.eventRepository.save(event).getId();
+                })
+                .collect(Collectors.toList());
+        List<Integer> dated = IntStream.range(0, 3)
+                .mapToObj(i -> generateEvent(i).getId())
+                .collect(Collectors.toList());
+
+        // When
+        List<Integer> ids = new ArrayList<>();
+        String after = "";
+        while (after != null) {
+            String body = this.mockMvc.perform(get("/api/events")
+                        .param("after", after)
+                        .param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = this.objectMapper.readTree(body);
+            page.path("_embedded").path("eventList").forEach(event -> ids.add(event.path("id").asInt()));
+            JsonNode next = page.path("_links").path("next").path("href");
+            after = next.isMissingNode() ? null
+                    : UriComponentsBuilder.fromUriString(next.asText()).build().getQueryParams().getFirst("after");
+        }
+
+        // Then
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids).containsAll(undated).containsAll(dated);
+        int lastUndated = undated.stream().mapToInt(ids::indexOf).max().getAsInt();
+        int firstDated = dated.stream().mapToInt(ids::indexOf).min().getAsInt();
+        assertThat(lastUndated).isLessThan(firstDated);
+    }
+
+    @Test
+    @TestDescription("커서 조회에서 지원하지 않는 정렬을 요청하면 400 응답받기")
+    public void queryEventsByCursorWithSort_Bad_Request() throws Exception {
+        this.mockMvc.perform(get("/api/events")
+                .param("after", "")
+                .param("sort", "name,DESC")
+            )
+            .andExpect(status().isBadRequest());
+
+        this.mockMvc.perform(get("/api/events")
+                .param("after", "")
+                .param("sort", "beginEventDateTime,DESC")
+            )
+            .andExpect(status().isBadRequest());
+
+        // 일부만 주거나 순서가 다르면 다른 정렬이다.
+        this.mockMvc.perform(get("/api/events")
+                .param("after", "")
+                .param("sort", "beginEventDateTime,ASC")
+            )
+            .andExpect(status().isBadRequest());
+
+        this.mockMvc.perform(get("/api/events")
+                .param("after", "")
+                .param("sort", "id,ASC")
+                .param("sort", "beginEventDateTime,ASC")
+            )
+            .andExpect(status().isBadRequest());
+
+        this.mockMvc.perform(get("/api/events")
+                .param("after", "")
+                .param("sort", "beginEventDateTime,ASC")
+                .param("sort", "id,ASC")
+            )
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @TestDescription("잘못된 커서로 조회하면 400 응답받기")
+    public void queryEventsByCursor_Bad_Request() throws Exception {
+        this.mockMvc.perform(get("/api/events")
+                .param("after", "not-a-cursor")
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     private Event generateEvent(int index, Account account) {
         Event event = buildEvent(index);
         event.setManager(account);
@@ -328,6 +774,195 @@ public class EventControllerTests extends BaseControllerTest {
         ;
     }
 
+    @Test
+    @TestDescription("미리 직렬화한 이벤트 본문이 EntityModel을 HAL 컨버터로 쓴 것과 같은지 확인하기")
+    public void getEventMatchesEntityModelRendering() throws Exception {
+        // Given
+        Optional<Account> optional = accountRepository.findByEmail(appProperties.getUserUsername());
+        Event event = this.generateEvent(100, optional.orElse(null));
+        String expected = writeWithHalConverter(this.eventRepository.findById(event.getId()).get());
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andExpect(content().json(expected, true));
+    }
+
+    @Test
+    @TestDescription("update-event 링크가 있는 본문은 매니저에게만 응답하기")
+    public void getEventManagerVariant() throws Exception {
+        // Given
+        Optional<Account> optional = accountRepository.findByEmail(appProperties.getUserUsername());
+        Event event = this.generateEvent(100, optional.orElse(null));
+
+        // When & Then
+        String managerETag = this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.update-event").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String anonymousETag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.update-event").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION,
+                            getBearerToken(appProperties.getAdminUsername(), appProperties.getAdminPassword())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.update-event").doesNotExist());
+
+        assertThat(managerETag).isNotEqualTo(anonymousETag);
+    }
+
+    @Test
+    @TestDescription("이벤트를 수정하면 미리 직렬화한 본문도 새로 만들기")
+    public void getEventAfterUpdate() throws Exception {
+        // Given
+        Optional<Account> optional = accountRepository.findByEmail(appProperties.getUserUsername());
+        Event event = this.generateEvent(100, optional.orElse(null));
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(jsonPath("name").value(event.getName()));
+
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("Updated Event");
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                    .contentType(MediaTypes.HAL_JSON_VALUE)
+                    .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Updated Event"));
+    }
+
+    @Test
+    @TestDescription("상태 전이 스케줄러가 바꾼 이벤트는 미리 직렬화한 본문도 새로 만들기")
+    public void getEventAfterLifecycleTransition() throws Exception {
+        // Given
+        Event event = buildEvent(100);
+        event.setEventStatus(EventStatus.PUBLISHED);
+        event = this.eventRepository.save(event);
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(jsonPath("eventStatus").value(EventStatus.PUBLISHED.name()));
+
+        // When
+        this.eventLifecycleScheduler.advance(EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT, LocalDateTime.now());
+
+        // Then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("eventStatus").value(EventStatus.BEGAN_ENROLLMENT.name()));
+    }
+
+    /**
+     * EventRenderer를 쓰기 전처럼 EntityModel을 Spring MVC의 HAL 메시지 컨버터로 직렬화한다.
+     */
+    @SuppressWarnings("unchecked")
+    private String writeWithHalConverter(Event event) throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            EntityModel<Event> entityModel = FactoryEntityModel.eventEntityModel(event);
+            entityModel.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+            for (HttpMessageConverter<?> converter : this.handlerAdapter.getMessageConverters()) {
+                if (converter.canWrite(EntityModel.class, MediaTypes.HAL_JSON)) {
+                    MockHttpOutputMessage output = new MockHttpOutputMessage();
+                    ((HttpMessageConverter<Object>) converter).write(entityModel, MediaTypes.HAL_JSON, output);
+                    return output.getBodyAsString(StandardCharsets.UTF_8);
+                }
+            }
+            throw new IllegalStateException("No HAL message converter");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+
+    @Test
+    @TestDescription("Accept 헤더로 CBOR를 요청하면 같은 HAL 모델을 CBOR로 응답받기")
+    public void queryEventsAsCbor() throws Exception {
+        // Given
+        IntStream.range(0, 30).forEach(this::generateEvent);
+
+        // When
+        byte[] body = this.mockMvc.perform(get("/api/events")
+                    .param("page", "1")
+                    .param("size", "10")
+                    .accept(HalFormat.CBOR_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(HalFormat.CBOR.getMediaType()))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(page.path("_embedded").path("eventList")).hasSize(10);
+        assertThat(page.path("_embedded").path("eventList").get(0).path("_links").has("self")).isTrue();
+        assertThat(page.path("_links").has("profile")).isTrue();
+        assertThat(page.path("page").path("totalElements").asInt()).isEqualTo(30);
+    }
+
+    @Test
+    @TestDescription("Smile로 이벤트 하나를 조회하면 HAL JSON과 다른 ETag를 받기")
+    public void getEventAsSmile() throws Exception {
+        // Given
+        Event event = this.generateEvent(100);
+        String jsonETag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        MockHttpServletResponse response = this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                    .accept(HalFormat.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(HalFormat.SMILE.getMediaType()))
+                .andReturn().getResponse();
+
+        // Then
+        JsonNode entity = new ObjectMapper(new SmileFactory()).readTree(response.getContentAsByteArray());
+        assertThat(entity.path("name").asText()).isEqualTo(event.getName());
+        assertThat(entity.path("_links").has("self")).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(jsonETag);
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                    .accept(HalFormat.SMILE_VALUE)
+                    .header(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @TestDescription("입력값이 잘못된 경우 에러도 CBOR로 응답받기")
+    public void createEvent_Bad_Request_Wrong_Input_As_Cbor() throws Exception {
+        EventDto event = EventDto.builder()
+                .name("Spring")
+                .description("REST API Development With Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 10, 18, 12, 26))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 10, 17, 12, 26))
+                .beginEventDateTime(LocalDateTime.of(2020, 10, 20, 12, 26))
+                .endEventDateTime(LocalDateTime.of(2020, 10, 19, 0, 26))
+                .basePrice(10000)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+
+        byte[] body = this.mockMvc.perform(post("/api/events")
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .accept(HalFormat.CBOR_VALUE)
+                    .content(this.objectMapper.writeValueAsString(event)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(HalFormat.CBOR.getMediaType()))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode errors = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(errors.isArray()).isTrue();
+        assertThat(errors.get(0).has("objectName")).isTrue();
+        assertThat(errors.get(0).has("code")).isTrue();
+    }
 
     @Test
     @TestDescription("기존의 이벤트를 수정")
@@ -342,7 +977,7 @@ public class EventControllerTests extends BaseControllerTest {
 
         // When
         this.mockMvc.perform(put("/api/events/{id}", event.getId())
-                    .header(HttpHeaders.AUTHORIZATION, getBearerToken(false))
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
                     .contentType(MediaTypes.HAL_JSON_VALUE)
                     .content(this.objectMapper.writeValueAsString(eventDto))
                 )
@@ -354,6 +989,71 @@ public class EventControllerTests extends BaseControllerTest {
 
     }
 
+    @Test
+    @TestDescription("ETag가 같으면 이벤트 조회 시 304 응답받기")
+    public void getEvent304() throws Exception {
+        // Given
+        Event event = this.generateEvent(100);
+        String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @TestDescription("If-Match가 현재 버전과 다르면 이벤트 수정 실패")
+    public void updateEvent412_Stale_Version() throws Exception {
+        // Given
+        Optional<Account> optional = accountRepository.findByEmail(appProperties.getUserUsername());
+        Event event = this.generateEvent(100, optional.orElse(null));
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+
+        // When & Then
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                    .header(HttpHeaders.IF_MATCH, "\"" + event.getId() + "-999\"")
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @TestDescription("replica가 지연돼도 방금 만든 이벤트를 바로 수정할 수 있다")
+    public void updateEventRightAfterCreate() throws Exception {
+        try (StaleReplica ignored = StaleReplica.attach(this.routingDataSource, this.replicaLagMonitor, this.appProperties)) {
+            // Given
+            String bearerToken = getBearerToken();
+            EventDto eventDto = buildEventDto(0);
+            MockHttpServletResponse created = this.mockMvc.perform(post("/api/events/")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse();
+            String location = created.getHeader(HttpHeaders.LOCATION);
+
+            String eventName = "Updated Event";
+            eventDto.setName(eventName);
+
+            // When & Then
+            this.mockMvc.perform(put(location)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .header(HttpHeaders.IF_MATCH, created.getHeader(HttpHeaders.ETAG))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("name").value(eventName));
+        }
+    }
+
     @Test
     @TestDescription("입려값이 없는 경우에 이벤트 수정 실패")
     public void updateEvent400_Empty() throws Exception {
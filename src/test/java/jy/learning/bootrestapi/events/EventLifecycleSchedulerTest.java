@@ -0,0 +1,60 @@
+package jy.learning.bootrestapi.events;
+
+import jy.learning.bootrestapi.common.TestDescription;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventLifecycleSchedulerTest {
+
+    @Autowired
+    EventLifecycleScheduler eventLifecycleScheduler;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Test
+    @TestDescription("등록 시작 시각이 지난 공개 이벤트만 등록 중 상태로 바뀌는 테스트")
+    public void advancePublishedEvents() {
+        LocalDateTime now = LocalDateTime.of(2040, 1, 1, 0, 0);
+        Event due = this.eventService.save(publishedEvent(now.minusHours(1)));
+        Event notYet = this.eventService.save(publishedEvent(now.plusHours(1)));
+        Integer dueVersion = due.getVersion();
+        // 캐시에 올려 두고 전이 후 비워지는지 확인한다.
+        this.eventService.findById(due.getId());
+
+        this.eventLifecycleScheduler.advance(EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT, now);
+
+        Event advanced = this.eventService.findById(due.getId()).get();
+        assertThat(advanced.getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+        assertThat(advanced.getVersion()).isEqualTo(dueVersion + 1);
+        assertThat(this.eventRepository.findById(notYet.getId()).get().getEventStatus())
+                .isEqualTo(EventStatus.PUBLISHED);
+    }
+
+    private Event publishedEvent(LocalDateTime beginEnrollmentDateTime) {
+        return Event.builder()
+                .name("lifecycle")
+                .description("lifecycle test event")
+                .beginEnrollmentDateTime(beginEnrollmentDateTime)
+                .closeEnrollmentDateTime(beginEnrollmentDateTime.plusDays(1))
+                .beginEventDateTime(beginEnrollmentDateTime.plusDays(2))
+                .endEventDateTime(beginEnrollmentDateTime.plusDays(3))
+                .limitOfEnrollment(100)
+                .eventStatus(EventStatus.PUBLISHED)
+                .build();
+    }
+}
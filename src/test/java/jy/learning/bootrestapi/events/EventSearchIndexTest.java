@@ -0,0 +1,51 @@
+package jy.learning.bootrestapi.events;
+
+import jy.learning.bootrestapi.common.TestDescription;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSearchIndexTest {
+
+    @Test
+    @TestDescription("점수 순으로 요청한 페이지만 고르고 전체 개수를 돌려주는 테스트")
+    public void searchPage() {
+        EventSearchIndex index = new EventSearchIndex();
+        for (int id = 1; id <= 10; id++) {
+            index.index(event(id, 0, id % 2 == 0 ? "spring spring" : "spring"));
+        }
+        index.index(event(11, 0, "boot"));
+
+        Page<Integer> first = index.search("spring", PageRequest.of(0, 3));
+        assertThat(first.getContent()).containsExactly(2, 4, 6);
+        assertThat(first.getTotalElements()).isEqualTo(10);
+
+        Page<Integer> second = index.search("spring", PageRequest.of(1, 3));
+        assertThat(second.getContent()).containsExactly(8, 10, 1);
+
+        Page<Integer> past = index.search("spring", PageRequest.of(5, 3));
+        assertThat(past.getContent()).isEmpty();
+        assertThat(past.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    @TestDescription("이미 더 높은 버전이 색인되어 있으면 낮은 버전으로 덮어쓰지 않는 테스트")
+    public void skipOlderVersion() {
+        EventSearchIndex index = new EventSearchIndex();
+        assertThat(index.index(event(1, 2, "boot"))).isTrue();
+        assertThat(index.index(event(1, 1, "spring"))).isFalse();
+
+        assertThat(index.search("boot", PageRequest.of(0, 10)).getContent()).containsExactly(1);
+        assertThat(index.search("spring", PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    private Event event(int id, int version, String name) {
+        return Event.builder()
+                .id(id)
+                .version(version)
+                .name(name)
+                .build();
+    }
+}
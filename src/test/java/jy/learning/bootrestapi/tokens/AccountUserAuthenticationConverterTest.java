@@ -0,0 +1,44 @@
+package jy.learning.bootrestapi.tokens;
+
+import jy.learning.bootrestapi.accounts.Account;
+import jy.learning.bootrestapi.accounts.AccountAdapter;
+import jy.learning.bootrestapi.accounts.AccountRole;
+import jy.learning.bootrestapi.common.TestDescription;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountUserAuthenticationConverterTest {
+
+    @Test
+    @TestDescription("토큰 claim만으로 AccountAdapter를 다시 만드는 테스트")
+    public void extractAccountFromClaims() {
+        //given
+        Account account = Account.builder()
+                .id(7)
+                .email("user@email.com")
+                .password("{noop}user")
+                .roles(AccountRole.makeSetRoles(AccountRole.ADMIN, AccountRole.USER))
+                .build();
+        AccountAdapter principal = new AccountAdapter(account);
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        AccountUserAuthenticationConverter converter = new AccountUserAuthenticationConverter();
+
+        //when
+        Map<String, ?> claims = converter.convertUserAuthentication(authentication);
+        Authentication extracted = converter.extractAuthentication(claims);
+
+        //then
+        assertThat(claims.get(AccountUserAuthenticationConverter.ACCOUNT_ID)).isEqualTo(7);
+        assertThat(extracted.getPrincipal()).isInstanceOf(AccountAdapter.class);
+        Account restored = ((AccountAdapter) extracted.getPrincipal()).getAccount();
+        assertThat(restored).isEqualTo(account);
+        assertThat(restored.getEmail()).isEqualTo("user@email.com");
+        assertThat(restored.getRoles()).containsExactlyInAnyOrder(AccountRole.ADMIN, AccountRole.USER);
+    }
+}